@@ -0,0 +1,201 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The following class benchmarks the class ArrayMap against HashMap and LinkedHashMap.
+ *
+ * The following class is a JMH benchmark of the map operations the game uses, at sizes
+ * from the 26 letters of the alphabet up to a million keys. Each map type is filled with
+ * the same keys, then hit and miss lookups, the createFreq counting pattern, iteration
+ * and removal are measured. The main method runs every benchmark with the GC profiler,
+ * so the allocation rate is reported next to the throughput. A linear ArrayMap is not
+ * filled past LINEAR_LIMIT keys, since every put scans the keys, so JMH reports those
+ * runs as failed and moves on.
+ *
+ * @author Fernando Ruiz
+ * @see ArrayMap
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayMapBenchmark {
+
+	private static final int TEXT_LENGTH = 1024;
+	private static final int LINEAR_LIMIT = 65536;
+
+	@Param({"26", "1024", "65536", "1048576"})
+	public int size;
+
+	@Param({"ArrayMap", "HashedArrayMap", "HashMap", "LinkedHashMap"})
+	public String type;
+
+	private Map<String, Integer> map;
+	private String[] hitKeys;
+	private String[] missKeys;
+	private String[] text;
+	private int next;
+
+	/**
+	 * The following function makes the keys and fills a map of the benchmark's
+	 * type and size.
+	 *
+	 * Lookup keys are shuffled so a run does not walk the map in insertion order,
+	 * and the text is one letter strings like the ones createFreq counts.
+	 *
+	 * @throws IllegalStateException if a linear ArrayMap is too big to fill.
+	 */
+	@Setup
+	public void setup() {
+		if (type.equals("ArrayMap") && size > LINEAR_LIMIT) {
+			throw new IllegalStateException("Linear ArrayMap is limited to " + LINEAR_LIMIT + " keys");
+		}
+		Random random = new Random(42);
+		this.hitKeys = new String[size];
+		this.missKeys = new String[size];
+		for (int i = 0; i < size; i++) {
+			hitKeys[i] = "Key" + i;
+			missKeys[i] = "Miss" + i;
+		}
+		this.map = newMap();
+		for (String key : hitKeys) {
+			map.put(key, 0);
+		}
+		for (int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			String temp = hitKeys[i];
+			hitKeys[i] = hitKeys[j];
+			hitKeys[j] = temp;
+		}
+		this.text = new String[TEXT_LENGTH];
+		for (int i = 0; i < TEXT_LENGTH; i++) {
+			text[i] = String.valueOf((char) ('A' + random.nextInt(26)));
+		}
+		this.next = 0;
+	}
+
+	/**
+	 * The following function returns an empty map of the benchmark's type.
+	 *
+	 * @return returns a Map of String to Integer.
+	 */
+	private Map<String, Integer> newMap() {
+		switch (type) {
+		case "ArrayMap":
+			return new ArrayMap<>();
+		case "HashedArrayMap":
+			return new ArrayMap<>(true);
+		case "HashMap":
+			return new HashMap<>();
+		case "LinkedHashMap":
+			return new LinkedHashMap<>();
+		default:
+			throw new IllegalArgumentException("Unknown map type: " + type);
+		}
+	}
+
+	/**
+	 * The following function returns the index of the next key, cycling
+	 * through the keys.
+	 *
+	 * @return returns an int index from 0 to size - 1.
+	 */
+	private int nextIndex() {
+		int index = next;
+		this.next = index + 1 == size ? 0 : index + 1;
+		return index;
+	}
+
+	/**
+	 * Benchmarks get of a key in the map.
+	 */
+	@Benchmark
+	public Integer getHit() {
+		return map.get(hitKeys[nextIndex()]);
+	}
+
+	/**
+	 * Benchmarks get of a key not in the map.
+	 */
+	@Benchmark
+	public Integer getMiss() {
+		return map.get(missKeys[nextIndex()]);
+	}
+
+	/**
+	 * Benchmarks counting the letters of a text into a new map, the pattern
+	 * used by createFreq in CryptogramModel.
+	 */
+	@Benchmark
+	public Map<String, Integer> countFreq() {
+		Map<String, Integer> freq = newMap();
+		for (String letter : text) {
+			freq.merge(letter, 1, Integer::sum);
+		}
+		return freq;
+	}
+
+	/**
+	 * Benchmarks walking every pair of the map.
+	 */
+	@Benchmark
+	public void iterate(Blackhole blackhole) {
+		for (Entry<String, Integer> entry : map.entrySet()) {
+			blackhole.consume(entry.getKey());
+			blackhole.consume(entry.getValue());
+		}
+	}
+
+	/**
+	 * Benchmarks removing a key and putting it back, so the map keeps its size.
+	 */
+	@Benchmark
+	public Integer removeAndPut() {
+		String key = hitKeys[nextIndex()];
+		Integer value = map.remove(key);
+		map.put(key, value);
+		return value;
+	}
+
+	/**
+	 * The following function runs every benchmark with the GC profiler.
+	 *
+	 * Arguments are passed to JMH as an include pattern, so a single benchmark
+	 * can be run with its name, for example getMiss.
+	 *
+	 * @param args is a String array that may have a benchmark name.
+	 *
+	 * @throws RunnerException if JMH fails to run a benchmark.
+	 */
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : ArrayMapBenchmark.class.getSimpleName();
+		Options options = new OptionsBuilder()
+				.include(include)
+				.addProfiler(GCProfiler.class)
+				.build();
+		new Runner(options).run();
+	}
+}
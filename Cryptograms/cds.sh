@@ -0,0 +1,27 @@
+#!/bin/sh
+# Makes the class data sharing archives of the text and window interfaces, so a new
+# JVM maps the game's classes from an archive instead of loading and verifying them.
+# Needs JDK 13 or later. Run it from the Cryptograms folder after building to bin, or
+# pass the folder the classes were built to. Classes are only archived from a jar, so
+# they are put in cryptogram.jar first. JAVA_OPTS is passed to java, for example the
+# --module-path and --add-modules of JavaFX on JDK 11 or later.
+#
+#   ./cds.sh [classes]
+#
+# Then start the game with the archive of its interface and the same jar:
+#
+#   java -XX:SharedArchiveFile=text.jsa -cp cryptogram.jar Cryptogram -text
+#   java -XX:SharedArchiveFile=window.jsa -cp cryptogram.jar Cryptogram -window
+set -e
+CLASSES=${1:-bin}
+jar cf cryptogram.jar -C "$CLASSES" .
+
+# the text archive is made from a short game read from stdin
+printf 'help\nfreq\nhint\na = b\nexit\n' |
+	java $JAVA_OPTS -XX:ArchiveClassesAtExit=text.jsa -cp cryptogram.jar Cryptogram -text > /dev/null
+echo "Wrote text.jsa"
+
+# the window archive is written when the window is closed
+echo "Close the game window to write window.jsa"
+java $JAVA_OPTS -XX:ArchiveClassesAtExit=window.jsa -cp cryptogram.jar Cryptogram -window
+echo "Wrote window.jsa"
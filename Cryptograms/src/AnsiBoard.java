@@ -0,0 +1,196 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+
+/**
+ * The following class represents an AnsiBoard, which keeps the Cryptogram display
+ * at a fixed place on a terminal and only redraws the letters that change.
+ *
+ * The following class draws the display once at the top of the screen, with the
+ * user's decryption on the odd rows and the encrypted quote under it, and then a
+ * banner such as the command prompt. The rows under the banner are the input row,
+ * where the user types, and the message rows under it. The AnsiBoard is a listener
+ * of the game, so when a replacement is made it moves the cursor with ANSI escape
+ * codes to every position of the letters in the ReplacementEvent and writes only
+ * those cells. The row and column of a position come from the LineLayout the display
+ * was wrapped with, and the cursor is put back where it was after the cells are
+ * written. The cursor is tracked, so cells next to each other are written
+ * without moving it, and a move on the same row only sends the column. The output
+ * is not flushed, the caller flushes it before waiting for input.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramTextView
+ * @see ReplacementEvent
+ * @see LineLayout
+ */
+public class AnsiBoard implements ModelListener {
+
+	private static final String CSI = "\u001b[";
+	private static final String SAVE_CURSOR = "\u001b7";
+	private static final String RESTORE_CURSOR = "\u001b8";
+	private final CryptogramController game;
+	private final LineLayout layout;
+	private final Appendable out;
+	private int inputRow;
+	private int row;
+	private int col;
+
+	/**
+	 * Constructor for AnsiBoard, which listens to the passed in game.
+	 *
+	 * @param game is a CryptogramController of the game to draw.
+	 * @param out is an Appendable of the terminal's output.
+	 */
+	public AnsiBoard(CryptogramController game, Appendable out) {
+		this.game = game;
+		this.layout = game.getTextLayout();
+		this.out = out;
+		game.addListener(this);
+	}
+
+	/**
+	 * The following function clears the screen and draws the whole display
+	 * with the passed in banner under it.
+	 *
+	 * @param banner is a CharSequence drawn under the display, its lines end in '\n'.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	public void draw(CharSequence banner) throws IOException {
+		out.append(CSI).append("H").append(CSI).append("2J");
+		game.writeCryptogram(out);
+		out.append('\n').append(banner);
+		int bannerRows = 0;
+		for (int i = 0; i < banner.length(); i++) {
+			if (banner.charAt(i) == '\n') {
+				bannerRows++;
+			}
+		}
+		//the display, a blank row, then the banner
+		this.inputRow = layout.lineCount() * 2 + 1 + bannerRows + 1;
+		this.row = 0;
+	}
+
+	/**
+	 * The following function moves the cursor to the start of the input row
+	 * and clears it, for the user to type a command.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	public void startInput() throws IOException {
+		moveTo(inputRow, 1);
+		out.append(CSI).append("2K");
+		//the user's typing moves the cursor
+		this.row = 0;
+	}
+
+	/**
+	 * The following function moves the cursor to the row under the input row
+	 * and clears the screen from there, for the messages of a command.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	public void startMessages() throws IOException {
+		moveTo(inputRow + 1, 1);
+		out.append(CSI).append("J");
+		this.row = 0;
+	}
+
+	/**
+	 * The following function writes the new letters of a replacement into
+	 * their cells of the display.
+	 *
+	 * @param event is a ReplacementEvent of the change.
+	 *
+	 * @throws UncheckedIOException if out throws.
+	 */
+	@Override
+	public void modelChanged(ReplacementEvent event) {
+		try {
+			//the cursor is put back where the messages are being written
+			out.append(SAVE_CURSOR);
+			this.row = 0;
+			for (int i = 0; i < event.size(); i++) {
+				char value = event.getNewValue(i);
+				for (int pos : event.getPositions(i)) {
+					int line = lineOf(pos);
+					//the decryption is the first row of the line
+					moveTo(line * 2 + 1, pos - layout.lineStart(line) + 1);
+					out.append(value);
+					col++;
+				}
+			}
+			out.append(RESTORE_CURSOR);
+			this.row = 0;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The following function returns the line of the layout that has the
+	 * passed in position of the quote.
+	 *
+	 * @param pos is an int index of a char of the quote.
+	 *
+	 * @return returns the int index of the line.
+	 */
+	private int lineOf(int pos) {
+		int low = 0;
+		int high = layout.lineCount() - 1;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			if (layout.lineStart(mid) <= pos) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * The following function moves the cursor to the passed in row and
+	 * column, both starting at 1, unless it is already there.
+	 *
+	 * @param toRow is an int row.
+	 * @param toCol is an int column.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	private void moveTo(int toRow, int toCol) throws IOException {
+		if (toRow == row && toCol == col) {
+			return;
+		}
+		out.append(CSI);
+		if (toRow == row) {
+			appendNumber(toCol);
+			out.append('G');
+		} else {
+			appendNumber(toRow);
+			out.append(';');
+			appendNumber(toCol);
+			out.append('H');
+		}
+		this.row = toRow;
+		this.col = toCol;
+	}
+
+	/**
+	 * The following function writes the digits of a positive number without
+	 * making a string.
+	 *
+	 * @param number is a positive int.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	private void appendNumber(int number) throws IOException {
+		int digit = 1;
+		while (digit <= number / 10) {
+			digit *= 10;
+		}
+		for (; digit > 0; digit /= 10) {
+			out.append((char) ('0' + number / digit % 10));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the escape codes AnsiBoard writes.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see AnsiBoard
+ */
+public class AnsiBoardTests {
+
+	private static final String ESC = "\u001b";
+	private static final String PROMPT = "---\nEnter a command:\n---\n";
+
+    /**
+     * Tests the input and message rows are under the display and the banner.
+     */
+	@Test
+	void testRows() throws IOException {
+		CryptogramController game = new CryptogramController(new CryptogramModel("Abba cab", 335));
+		StringBuilder out = new StringBuilder();
+		AnsiBoard board = new AnsiBoard(game, out);
+
+		//test the screen is cleared and the display is drawn from the top
+		board.draw(PROMPT);
+		assertTrue(out.toString().startsWith(ESC + "[H" + ESC + "[2J" + game.printCryptogram()));
+
+		//test the 2 rows of a line, a blank row and 3 banner rows put the input on row 7
+		out.setLength(0);
+		board.startInput();
+		assertEquals(out.toString(), ESC + "[7;1H" + ESC + "[2K");
+		out.setLength(0);
+		board.startMessages();
+		assertEquals(out.toString(), ESC + "[8;1H" + ESC + "[J");
+
+		//test a display of 50 lines puts the input on row 2 * 50 + 5
+		StringBuilder quote = new StringBuilder();
+		for (int i = 0; i < 350; i++) {
+			quote.append("AAAAAAAAA ");
+		}
+		game = new CryptogramController(new CryptogramModel(quote.toString(), 335));
+		assertEquals(game.getTextLayout().lineCount(), 50);
+		board = new AnsiBoard(game, out);
+		board.draw(PROMPT);
+		out.setLength(0);
+		board.startInput();
+		assertEquals(out.toString(), ESC + "[105;1H" + ESC + "[2K");
+	}
+
+    /**
+     * Tests a replacement only writes the cells of its letter.
+     */
+	@Test
+	void testModelChanged() throws IOException {
+		//Q is at 10, 72 and 74 of the first line, and 86 and 87 of the second line at 76
+		StringBuilder quote = new StringBuilder("AAAAAAAAA Q");
+		for (int i = 0; i < 6; i++) {
+			quote.append(" AAAAAAAAA");
+		}
+		quote.append(" Q Q AAAAAAAAA QQ");
+		CryptogramModel model = new CryptogramModel(quote.toString(), 335);
+		CryptogramController game = new CryptogramController(model);
+		assertEquals(game.getTextLayout().lineCount(), 2);
+		assertEquals(game.getTextLayout().lineStart(1), 76);
+		StringBuilder out = new StringBuilder();
+		AnsiBoard board = new AnsiBoard(game, out);
+		board.draw(PROMPT);
+		out.setLength(0);
+
+		//test the cursor is saved, moved to each cell on the decryption rows and put back,
+		//a move on the same row only sends the column and the cell after the last one isn't moved to
+		char cipher = model.getCipherEngine().encrypt('Q');
+		game.makeReplacement(cipher, 'q');
+		assertEquals(out.toString(), ESC + "7"
+				+ ESC + "[1;11HQ"
+				+ ESC + "[73GQ"
+				+ ESC + "[75GQ"
+				+ ESC + "[3;11HQQ"
+				+ ESC + "8");
+
+		//test a replacement that changes nothing writes nothing
+		out.setLength(0);
+		game.makeReplacement(cipher, 'Q');
+		assertEquals(out.length(), 0);
+	}
+}
@@ -1,10 +1,22 @@
+import java.util.AbstractCollection;
 import java.util.AbstractMap;
 import java.util.AbstractSet;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
 
 
 /**
@@ -13,8 +25,13 @@ import java.util.Set;
  * The following class represents a generic ArrayMap that consists of two object 
  * arrays one for keys and the other for values. The indexes in the array represent
  * a key and value pair. The class has the following methods: put, get, containsKey
- * size and entrySet, which all are overridden from AbstractMap. There are two inner
- * classes ArrayMapEntrySet and ArrayMapEntrySetItertor.
+ * size, entrySet, keySet and values, which all are overridden from AbstractMap. The
+ * Map default methods such as getOrDefault, merge and compute are also overridden
+ * to work on the arrays with one lookup. The
+ * sets and collection returned are live views of the arrays, see the inner classes
+ * ArrayMapEntrySet, ArrayMapKeySet, ArrayMapValues and ArrayMapEntrySetItertor. An
+ * ArrayMap can be made in hashed mode, which keeps an open addressing table of 
+ * indexes so lookups do not scan the pairs.
  * @author Fernando Ruiz
  *
  *
@@ -24,24 +41,46 @@ import java.util.Set;
 public class ArrayMap<K, V> extends AbstractMap<K,V> {
 	
 	private static int DEFAULT_SIZE = 10;
+	private static final float LOAD_FACTOR = 0.75f;
 	private Object[] keys;
 	private Object[] values;
-	private int size;
+	private int[] table;
+	private Set<Entry<K, V>> entryView;
+	private Set<K> keyView;
+	private Collection<V> valueView;
 	private int pairs;
+	private int modCount;
 	
 	/**
 	 * Constructor for ArrayMap
 	 * 
 	 * The constructor assigns an array to keys and
-	 * values with a default size. Size is also set
-	 * to default and pairs, which represents the 
-	 * number of mappings, is set to zero. 
+	 * values with a default size. Pairs, which 
+	 * represents the number of mappings, is set
+	 * to zero. 
 	 */
 	public ArrayMap() {
+		this(false);
+	}
+	
+	/**
+	 * Constructor for ArrayMap with a storage mode.
+	 * 
+	 * The constructor works the same as the default constructor, but if 
+	 * hashed is true the ArrayMap also keeps an open addressing table of
+	 * indexes into keys and values. Lookups then probe the table instead of
+	 * scanning every pair. Pairs are still stored in insertion order so 
+	 * iteration is the same in both modes.
+	 * 
+	 * @param hashed is a boolean that turns on the hashed storage mode.
+	 */
+	public ArrayMap(boolean hashed) {
 		this.keys   = new Object[DEFAULT_SIZE];
 		this.values = new Object[DEFAULT_SIZE];
-		this.size   = DEFAULT_SIZE;
 		this.pairs  = 0;
+		if (hashed) {
+			this.table = new int[tableSizeFor(DEFAULT_SIZE)];
+		}
 	}
 	
 	
@@ -62,274 +101,1308 @@ public class ArrayMap<K, V> extends AbstractMap<K,V> {
 	@SuppressWarnings("unchecked")
 	@Override
 	public V put(K key, V value) {
+		//check if key exists, return old value
+		int index = indexOf(key);
+		if (index >= 0) {
+			V oldVal = (V) values[index];
+			values[index] = value;
+			return oldVal;
+		}
+		
+		//key doesn't exist add new pair
+		addPair(key, value);
+		return null;
+	}
+	
+	/**
+	 * The following function adds the passed in key and value as a new pair.
+	 * 
+	 * The key must not already be in the ArrayMap. The function checks to see
+	 * if the arrays for keys and values need to be adjusted based on the 
+	 * current number of pairs.
+	 * 
+	 * @param key represents a key of type K that is not in the ArrayMap.
+	 * @param value represents a value of type V
+	 * 
+	 * @throws NullPointerException if key is null.
+	 */
+	private void addPair(K key, V value) {
+		Objects.requireNonNull(key);
 		//check size of array
-		if (pairs == size) {
-			this.size = size * 2;
-			this.keys = Arrays.copyOf(keys, size);
-			this.values = Arrays.copyOf(values, size);
+		if (pairs == keys.length) {
+			int capacity = keys.length * 2;
+			this.keys = Arrays.copyOf(keys, capacity);
+			this.values = Arrays.copyOf(values, capacity);
+			if (table != null) {
+				rehash(tableSizeFor(capacity));
+			}
+		}
+		
+		keys[pairs] = key;
+		values[pairs] = value;
+		if (table != null) {
+			table[slotOf(key)] = pairs + 1;
+		}
+		this.pairs++;
+		this.modCount++;
+	}
+	
+	/**
+	 * The following function returns the value the passed in key maps to.
+	 * 
+	 * The following function overrides get so the lookup is done on the
+	 * keys array directly instead of walking the entrySet.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * 
+	 * @return returns the value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : (V) values[index];
+	}
+	
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in key is in the ArrayMap.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * 
+	 * @return returns true if the key is in the ArrayMap.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+	
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in value is in the ArrayMap.
+	 * 
+	 * @param value is an Object that may be a value in the ArrayMap.
+	 * 
+	 * @return returns true if a key maps to the value.
+	 */
+	@Override
+	public boolean containsValue(Object value) {
+		for (int i = 0; i < this.pairs; i++) {
+			if (Objects.equals(value, values[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * The following function returns the value the passed in key maps to,
+	 * or the passed in default if the key is not in the ArrayMap.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * @param defaultValue is the value of type V to return if N/A.
+	 * 
+	 * @return returns the value of the key, if N/A returns defaultValue
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V getOrDefault(Object key, V defaultValue) {
+		int index = indexOf(key);
+		return index < 0 ? defaultValue : (V) values[index];
+	}
+	
+	/**
+	 * The following function adds the passed in key and value if the key
+	 * is not in the ArrayMap or maps to null.
+	 * 
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 * 
+	 * @return returns existing key's value if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V putIfAbsent(K key, V value) {
+		int index = indexOf(key);
+		if (index < 0) {
+			addPair(key, value);
+			return null;
+		}
+		V oldVal = (V) values[index];
+		if (oldVal == null) {
+			values[index] = value;
+		}
+		return oldVal;
+	}
+	
+	/**
+	 * The following function returns the value of the passed in key, adding
+	 * the value made by the passed in function if the key is not in the 
+	 * ArrayMap or maps to null.
+	 * 
+	 * Nothing is added if the function returns null.
+	 * 
+	 * @param key represents a key of type K
+	 * @param mappingFunction is a Function that makes a value for the key.
+	 * 
+	 * @return returns the current value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		Objects.requireNonNull(mappingFunction);
+		int index = indexOf(key);
+		if (index >= 0 && values[index] != null) {
+			return (V) values[index];
+		}
+		int mc = modCount;
+		V newVal = mappingFunction.apply(key);
+		checkModCount(mc);
+		if (newVal != null) {
+			setOrAdd(index, key, newVal);
+		}
+		return newVal;
+	}
+	
+	/**
+	 * The following function replaces the value of the passed in key with the
+	 * value made by the passed in function if the key maps to a non-null value.
+	 * 
+	 * The pair is removed if the function returns null.
+	 * 
+	 * @param key represents a key of type K
+	 * @param remappingFunction is a BiFunction of the key and old value.
+	 * 
+	 * @return returns the new value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int index = indexOf(key);
+		if (index < 0 || values[index] == null) {
+			return null;
+		}
+		int mc = modCount;
+		V newVal = remappingFunction.apply(key, (V) values[index]);
+		checkModCount(mc);
+		setOrRemove(index, key, newVal);
+		return newVal;
+	}
+	
+	/**
+	 * The following function replaces the value of the passed in key with the
+	 * value made by the passed in function from the old value, which is null
+	 * if the key is not in the ArrayMap.
+	 * 
+	 * The pair is removed, or not added, if the function returns null.
+	 * 
+	 * @param key represents a key of type K
+	 * @param remappingFunction is a BiFunction of the key and old value.
+	 * 
+	 * @return returns the new value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(remappingFunction);
+		int index = indexOf(key);
+		V oldVal = index < 0 ? null : (V) values[index];
+		int mc = modCount;
+		V newVal = remappingFunction.apply(key, oldVal);
+		checkModCount(mc);
+		setOrRemove(index, key, newVal);
+		return newVal;
+	}
+	
+	/**
+	 * The following function adds the passed in value for the passed in key, or
+	 * if the key maps to a non-null value replaces it with the value made by 
+	 * the passed in function from the old and passed in values.
+	 * 
+	 * This is a single lookup, so a count can be kept with 
+	 * merge(key, 1, Integer::sum). The pair is removed if the function 
+	 * returns null.
+	 * 
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V to add or merge.
+	 * @param remappingFunction is a BiFunction of the old value and value.
+	 * 
+	 * @return returns the new value of the key, if removed returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		Objects.requireNonNull(value);
+		Objects.requireNonNull(remappingFunction);
+		int index = indexOf(key);
+		V oldVal = index < 0 ? null : (V) values[index];
+		int mc = modCount;
+		V newVal = oldVal == null ? value : remappingFunction.apply(oldVal, value);
+		checkModCount(mc);
+		setOrRemove(index, key, newVal);
+		return newVal;
+	}
+	
+	/**
+	 * The following function performs the passed in action on every pair
+	 * in insertion order.
+	 * 
+	 * @param action is a BiConsumer of a key and its value.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void forEach(BiConsumer<? super K, ? super V> action) {
+		Objects.requireNonNull(action);
+		int mc = modCount;
+		for (int i = 0; i < this.pairs && modCount == mc; i++) {
+			action.accept((K) keys[i], (V) values[i]);
+		}
+		checkModCount(mc);
+	}
+	
+	/**
+	 * The following function replaces every value with the value made by the
+	 * passed in function from its key and value.
+	 * 
+	 * @param function is a BiFunction of a key and its value.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		Objects.requireNonNull(function);
+		int mc = modCount;
+		for (int i = 0; i < this.pairs && modCount == mc; i++) {
+			values[i] = function.apply((K) keys[i], (V) values[i]);
+		}
+		checkModCount(mc);
+	}
+	
+	/**
+	 * The following function returns a boolean based on whether the passed 
+	 * in object is a Map with the same pairs, as in the Map spec.
+	 * 
+	 * @param o is an Object to compare with.
+	 * 
+	 * @return returns true if the object is an equal Map.
+	 */
+	@Override
+	public boolean equals(Object o) {
+		if (o == this) {
+			return true;
+		}
+		if (!(o instanceof Map)) {
+			return false;
+		}
+		Map<?, ?> map = (Map<?, ?>) o;
+		if (map.size() != this.pairs) {
+			return false;
+		}
+		for (int i = 0; i < this.pairs; i++) {
+			Object value = values[i];
+			if (value == null) {
+				if (map.get(keys[i]) != null || !map.containsKey(keys[i])) {
+					return false;
+				}
+			} else if (!value.equals(map.get(keys[i]))) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * The following function returns the hash code of the ArrayMap, which
+	 * is the sum of the hash codes of its pairs as in the Map spec.
+	 * 
+	 * @return returns an int hash code.
+	 */
+	@Override
+	public int hashCode() {
+		int h = 0;
+		for (int i = 0; i < this.pairs; i++) {
+			h += Objects.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+		}
+		return h;
+	}
+	
+	/**
+	 * The following function throws if pairs were added or removed since
+	 * the passed in modCount was read.
+	 * 
+	 * @param expected is an int modCount read before calling a function.
+	 * 
+	 * @throws ConcurrentModificationException if the ArrayMap was changed.
+	 */
+	private void checkModCount(int expected) {
+		if (modCount != expected) {
+			throw new ConcurrentModificationException();
+		}
+	}
+	
+	/**
+	 * The following function sets the value at the passed in index, or adds
+	 * a new pair if the index is -1.
+	 * 
+	 * @param index is an int index of the key, -1 if N/A.
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 */
+	private void setOrAdd(int index, K key, V value) {
+		if (index >= 0) {
+			values[index] = value;
+		} else {
+			addPair(key, value);
+		}
+	}
+	
+	/**
+	 * The following function works like setOrAdd, but a null value removes 
+	 * the pair at the index instead.
+	 * 
+	 * @param index is an int index of the key, -1 if N/A.
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V or null to remove.
+	 */
+	private void setOrRemove(int index, K key, V value) {
+		if (value != null) {
+			setOrAdd(index, key, value);
+		} else if (index >= 0) {
+			removeAt(index);
+		}
+	}
+	
+	/**
+	 * The following function returns an immutable copy of the ArrayMap.
+	 * 
+	 * The copy is a FrozenArrayMap, which places the keys with a perfect
+	 * hash so a lookup reads one slot. Use it for a map that is done changing.
+	 * 
+	 * @return returns a FrozenArrayMap of the pairs in the ArrayMap.
+	 */
+	public FrozenArrayMap<K, V> freeze() {
+		return new FrozenArrayMap<>(this);
+	}
+	
+	/**
+	 * The following function returns the index of the passed in key in the
+	 * keys array. 
+	 * 
+	 * In hashed mode the open addressing table is probed from the key's hash
+	 * until the key or an empty slot is found. Otherwise the pairs are scanned.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * 
+	 * @return returns the index of the key, if N/A returns -1
+	 */
+	private int indexOf(Object key) {
+		if (key == null) {
+			return -1;
+		}
+		if (table == null) {
+			for (int i = 0; i < this.pairs; i++) {
+				if (key.equals(keys[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+		int slot = findSlot(key);
+		return slot < 0 ? -1 : table[slot] - 1;
+	}
+	
+	/**
+	 * The following function returns the table slot that holds the index of 
+	 * the passed in key. Only used in hashed mode.
+	 * 
+	 * @param key is an Object that is not null.
+	 * 
+	 * @return returns the slot of the key, if N/A returns -1
+	 */
+	private int findSlot(Object key) {
+		int mask = table.length - 1;
+		for (int slot = hash(key) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+			if (key.equals(keys[table[slot] - 1])) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * The following function empties the passed in table slot. Only used in 
+	 * hashed mode.
+	 * 
+	 * The slots after it in the same probe run are shifted back into the hole
+	 * when their key's hash allows it, so every key can still be found by 
+	 * probing from its hash without an empty slot in the way.
+	 * 
+	 * @param slot is an int slot of the table that holds an index.
+	 */
+	private void deleteSlot(int slot) {
+		int mask = table.length - 1;
+		int hole = slot;
+		for (int next = (hole + 1) & mask; table[next] != 0; next = (next + 1) & mask) {
+			int home = hash(keys[table[next] - 1]) & mask;
+			//move back if the hole is between the key's hash and its slot
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				table[hole] = table[next];
+				hole = next;
+			}
+		}
+		table[hole] = 0;
+	}
+	
+	/**
+	 * The following function returns the first empty table slot for the passed
+	 * in key. Only used in hashed mode for a key that is not in the table.
+	 * 
+	 * @param key is an Object to be added to the table.
+	 * 
+	 * @return returns an int that is an empty slot in the table.
+	 */
+	private int slotOf(Object key) {
+		int mask = table.length - 1;
+		int slot = hash(key) & mask;
+		while (table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+	
+	/**
+	 * The following function rebuilds the table with the passed in length 
+	 * from the pairs in the keys array. The table is reused if it already 
+	 * has that length.
+	 * 
+	 * @param length is an int power of two for the new table.
+	 */
+	private void rehash(int length) {
+		if (table.length == length) {
+			Arrays.fill(table, 0);
+		} else {
+			this.table = new int[length];
+		}
+		for (int i = 0; i < this.pairs; i++) {
+			table[slotOf(keys[i])] = i + 1;
+		}
+	}
+	
+	/**
+	 * The following function spreads the high bits of the key's hash code
+	 * into the low bits used to pick a table slot.
+	 * 
+	 * @param key is an Object that is not null.
+	 * 
+	 * @return returns an int hash for the key.
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+	
+	/**
+	 * The following function returns the table length needed to hold
+	 * the passed in capacity of pairs under the load factor.
+	 * 
+	 * @param capacity is an int number of pairs.
+	 * 
+	 * @return returns an int power of two.
+	 */
+	private static int tableSizeFor(int capacity) {
+		int needed = (int) Math.ceil(capacity / LOAD_FACTOR);
+		int length = 1;
+		while (length < needed) {
+			length <<= 1;
+		}
+		return length;
+	}
+	
+	/**
+	 * The following function returns the size of the ArrayMap. 
+	 * 
+	 * The following function overrides the function size and returns
+	 * the field pairs which represents the number of mappings in the 
+	 * ArrayMap. 
+	 * 
+	 * @return returns an int that represents the size(pairs) of theArrayMap
+	 */
+	@Override
+	public int size() {
+		return this.pairs;	
+	}
+	
+	/**
+	 * The following function returns a set of entry pairs.
+	 * 
+	 * The following function returns an ArrayMapEntrySet, which is a 
+	 * live view of the key and value pairs in the ArrayMap. The view is
+	 * made once and reads the keys and values arrays directly, so no pairs
+	 * are copied. Can be iterated over using the inner class functions in 
+	 * ArrayMapEntrySetIterator.
+	 * 
+	 * @return returns an ArrayMapEntrySet of key value pairs in the ArrayMap.
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entryView == null) {
+			entryView = new ArrayMapEntrySet();
+		}
+		return entryView;
+	}
+	
+	/**
+	 * The following function returns a set of the keys.
+	 * 
+	 * The following function returns an ArrayMapKeySet, which is a live
+	 * view of the keys array in the ArrayMap. 
+	 * 
+	 * @return returns an ArrayMapKeySet of the keys in the ArrayMap.
+	 */
+	@Override
+	public Set<K> keySet() {
+		if (keyView == null) {
+			keyView = new ArrayMapKeySet();
+		}
+		return keyView;
+	}
+	
+	/**
+	 * The following function returns a collection of the values.
+	 * 
+	 * The following function returns an ArrayMapValues, which is a live
+	 * view of the values array in the ArrayMap. 
+	 * 
+	 * @return returns an ArrayMapValues of the values in the ArrayMap.
+	 */
+	@Override
+	public Collection<V> values() {
+		if (valueView == null) {
+			valueView = new ArrayMapValues();
+		}
+		return valueView;
+	}
+	
+	/**
+	 * The following function removes the passed in entry from ArrayMap. 
+	 * 
+	 * The following function uses the passed in entry's key to find the index of the
+	 * the key value pair and removes them from their array fields. The field pairs
+	 * is decremented since a pair has been removed.
+	 * 
+	 * @param entry is a key value pair in the object Entry<K, V>.
+	 */
+	public void remove(Entry<K, V> entry) {
+		int index = indexOf(entry.getKey());
+		if (index >= 0) {
+			removeAt(index);
+		}
+	}
+	
+	/**
+	 * The following function removes the pair of the passed in key from ArrayMap.
+	 * 
+	 * The following function overrides remove so the pair is found with a lookup
+	 * and removed in place. The pairs after it move down an index so insertion
+	 * order is kept.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * 
+	 * @return returns the removed value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V oldVal = (V) values[index];
+		removeAt(index);
+		return oldVal;
+	}
+	
+	/**
+	 * The following function removes the pair of the passed in key from ArrayMap
+	 * without keeping insertion order. 
+	 * 
+	 * The last pair is moved into the removed pair's index, so no other pair
+	 * moves. In hashed mode this is O(1). Use it when iteration order does not
+	 * matter.
+	 * 
+	 * @param key is an Object that may be a key in the ArrayMap.
+	 * 
+	 * @return returns the removed value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	public V removeUnordered(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V oldVal = (V) values[index];
+		int last = pairs - 1;
+		if (table != null) {
+			deleteSlot(findSlot(keys[index]));
+			if (index != last) {
+				table[findSlot(keys[last])] = index + 1;
+			}
+		}
+		keys[index] = keys[last];
+		values[index] = values[last];
+		keys[last] = null;
+		values[last] = null;
+		this.pairs--;
+		this.modCount++;
+		return oldVal;
+	}
+	
+	/**
+	 * The following function removes every pair from ArrayMap.
+	 * 
+	 * The arrays are kept and only the used indexes are cleared.
+	 */
+	@Override
+	public void clear() {
+		Arrays.fill(keys, 0, pairs, null);
+		Arrays.fill(values, 0, pairs, null);
+		if (table != null) {
+			Arrays.fill(table, 0);
+		}
+		this.pairs = 0;
+		this.modCount++;
+	}
+	
+	/**
+	 * The following function removes the pair at the passed in index.
+	 * 
+	 * The pairs after the index are shifted down one index in place. In 
+	 * hashed mode the key's slot is emptied and the table indexes past
+	 * the removed index are decremented to match the shift.
+	 * 
+	 * @param index is an int index of a pair in the ArrayMap.
+	 */
+	private void removeAt(int index) {
+		if (table != null) {
+			deleteSlot(findSlot(keys[index]));
+			for (int slot = 0; slot < table.length; slot++) {
+				if (table[slot] > index + 1) {
+					table[slot]--;
+				}
+			}
+		}
+		int moved = pairs - index - 1;
+		System.arraycopy(keys, index + 1, keys, index, moved);
+		System.arraycopy(values, index + 1, values, index, moved);
+		this.pairs--;
+		this.modCount++;
+		keys[pairs] = null;
+		values[pairs] = null;
+	}
+	
+	/**
+	 * The following function removes every pair whose index passes the filter.
+	 * 
+	 * The pairs that are kept are compacted to the front of the arrays in one 
+	 * pass, keeping their order, and the table is rebuilt once at the end. If 
+	 * the filter throws, the pairs it has not tested are kept.
+	 * 
+	 * @param filter is an IntPredicate that is true for an index to remove.
+	 * 
+	 * @return returns true if any pair was removed.
+	 */
+	private boolean removeWhere(IntPredicate filter) {
+		int kept = 0;
+		int i = 0;
+		int removed;
+		try {
+			for (; i < pairs; i++) {
+				if (!filter.test(i)) {
+					keys[kept] = keys[i];
+					values[kept] = values[i];
+					kept++;
+				}
+			}
+		} finally {
+			//keep the pairs not yet tested
+			int rest = pairs - i;
+			System.arraycopy(keys, i, keys, kept, rest);
+			System.arraycopy(values, i, values, kept, rest);
+			kept += rest;
+			Arrays.fill(keys, kept, pairs, null);
+			Arrays.fill(values, kept, pairs, null);
+			removed = pairs - kept;
+			this.pairs = kept;
+			if (removed > 0) {
+				this.modCount++;
+				if (table != null) {
+					rehash(table.length);
+				}
+			}
+		}
+		return removed > 0;
+	}
+
+	
+	/**
+	 * The following class represents an entry set for the ArrayMap.
+	 * 
+	 * The following class represents an iteratorable set of entries 
+	 * that represent key value pairs in the ArrayMap. The set is a view,
+	 * it has no entries of its own and reads the ArrayMap's arrays. The
+	 * class extends AbstractSet and overrides the methods size, contains,
+	 * iterator, remove, removeIf, removeAll, retainAll and clear.
+	 * 
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ArrayMapEntrySet extends AbstractSet<Entry<K,V>> {
+		
+		/**
+		 * The following function returns the size of the entrySet. 
+		 * 
+		 * The following function overrides the function size and returns
+		 * the ArrayMap's field pairs which represents the number of mappings.
+		 * entrySet is a set of entry pairs based on the ArrayMap pairs
+		 * so represents the same size.  
+		 * 
+		 * @return returns int that represents the size of the entrySet
+		 */
+		@Override
+		public int size() {
+			return pairs;
+		}
+		
+		/**
+		 * The following function returns a boolean based on whether or not
+		 * the entrySet contains the passed in entry.
+		 * 
+		 * The following function overrides the function contains. It returns
+		 * true if the passed in object is an entry in the entrySet. If the object
+		 * is not an entry or is not in the entrySet false is returned.
+		 * 
+		 * @param o is an Object that may exist in the entry set.
+		 * 
+		 * @return returns a boolean based on if the object is in the entrySet
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Entry) {
+				Entry<?, ?> entry = (Entry<?, ?>) o;
+				int index = indexOf(entry.getKey());
+				return index >= 0 && Objects.equals(entry.getValue(), values[index]);
+			}
+			return false;
+		}
+		
+		/**
+		 * The following function removes the passed in entry from the ArrayMap
+		 * if the entrySet contains it.
+		 * 
+		 * @param o is an Object that may exist in the entry set.
+		 * 
+		 * @return returns true if the entry was removed.
+		 */
+		@Override
+		public boolean remove(Object o) {
+			if (contains(o)) {
+				removeAt(indexOf(((Entry<?, ?>) o).getKey()));
+				return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * The following function removes every entry that passes the filter
+		 * from the ArrayMap in one pass.
+		 * 
+		 * @param filter is a Predicate that is true for an entry to remove.
+		 * 
+		 * @return returns true if any entry was removed.
+		 */
+		@Override
+		public boolean removeIf(Predicate<? super Entry<K, V>> filter) {
+			Objects.requireNonNull(filter);
+			return removeWhere(i -> filter.test(new ArrayMapEntry(i)));
+		}
+		
+		/**
+		 * The following function removes every entry in the passed in 
+		 * collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of entries to remove.
+		 * 
+		 * @return returns true if any entry was removed.
+		 */
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> c.contains(new ArrayMapEntry(i)));
+		}
+		
+		/**
+		 * The following function removes every entry not in the passed in
+		 * collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of entries to keep.
+		 * 
+		 * @return returns true if any entry was removed.
+		 */
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> !c.contains(new ArrayMapEntry(i)));
+		}
+		
+		/**
+		 * The following function removes every pair from the ArrayMap.
+		 */
+		@Override
+		public void clear() {
+			ArrayMap.this.clear();
+		}
+		
+		/**
+		 * The following function returns an iterator that walks
+		 * over the entrySet. 
+		 * 
+		 * The following function returns an iterator that walks
+		 * over the entrySet which represents the Entries in the Map. 
+		 * The iterator is implemented in the private inner class
+		 * ArrayMapEntrySetIterator.
+		 * 
+		 * @return returns an ArrayMapEntrySetIterator to iterate over entrySet
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new ArrayMapEntrySetIterator();
+		}
+		
+		/**
+		 * @return returns an ArrayMapSpliterator of the entries.
+		 */
+		@Override
+		public Spliterator<Entry<K, V>> spliterator() {
+			return new ArrayMapSpliterator<Entry<K, V>>(ArrayMapEntry::new,
+					Spliterator.DISTINCT | Spliterator.NONNULL);
+		}
+	}
+	
+	/**
+	 * The following class represents a key set for the ArrayMap.
+	 * 
+	 * The following class is a view of the keys array of the ArrayMap.
+	 * The class extends AbstractSet and overrides the methods size,
+	 * contains, iterator, remove, removeIf, removeAll, retainAll and clear.
+	 * 
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ArrayMapKeySet extends AbstractSet<K> {
+		
+		/**
+		 * The following function returns the number of pairs in the ArrayMap.
+		 * 
+		 * @return returns int that represents the size of the view.
+		 */
+		@Override
+		public int size() {
+			return pairs;
+		}
+		
+		/**
+		 * The following function returns true if the passed in object is a key.
+		 * 
+		 * @param o is an Object that may be a key in the ArrayMap.
+		 * 
+		 * @return returns a boolean based on if the object is a key.
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return indexOf(o) >= 0;
+		}
+		
+		/**
+		 * The following function removes the pair of the passed in key from
+		 * the ArrayMap.
+		 * 
+		 * @param o is an Object that may be a key in the ArrayMap.
+		 * 
+		 * @return returns true if the pair was removed.
+		 */
+		@Override
+		public boolean remove(Object o) {
+			int index = indexOf(o);
+			if (index >= 0) {
+				removeAt(index);
+				return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * The following function removes the pair of every key that passes
+		 * the filter from the ArrayMap in one pass.
+		 * 
+		 * @param filter is a Predicate that is true for a key to remove.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean removeIf(Predicate<? super K> filter) {
+			Objects.requireNonNull(filter);
+			return removeWhere(i -> filter.test((K) keys[i]));
+		}
+		
+		/**
+		 * The following function removes the pair of every key in the passed
+		 * in collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of keys to remove.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> c.contains(keys[i]));
+		}
+		
+		/**
+		 * The following function removes the pair of every key not in the
+		 * passed in collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of keys to keep.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> !c.contains(keys[i]));
 		}
 		
-		//check if key exists, return old value
-		for (int i=0; i<keys.length; i++) {
-			if (key.equals(keys[i])) {
-				V oldVal = (V) values[i];
-				values[i] = value;
-				return oldVal;
-			}
+		/**
+		 * The following function removes every pair from the ArrayMap.
+		 */
+		@Override
+		public void clear() {
+			ArrayMap.this.clear();
 		}
 		
-		//key doesn't exist add new pair
-		keys[pairs] = key;
-		values[pairs] = value;
-		this.pairs++;
-		return null;
-	}
-	
-	/**
-	 * The following function returns the size of the ArrayMap. 
-	 * 
-	 * The following function overrides the function size and returns
-	 * the field pairs which represents the number of mappings in the 
-	 * ArrayMap. 
-	 * 
-	 * @return returns an int that represents the size(pairs) of theArrayMap
-	 */
-	@Override
-	public int size() {
-		return this.pairs;	
-	}
-	
-	/**
-	 * The following function returns a set of entry pairs.
-	 * 
-	 * The following function returns an ArrayMapEntrySet, which
-	 * has an SimpleEntry of each key and value pair in the ArrayMap.
-	 * Can be iterated over using the inner class functions in 
-	 * ArrayMapEntrySetIterator.
-	 * 
-	 * @return returns an ArrayMapEntrySet of key value pairs in the ArrayMap.
-	 */
-	@SuppressWarnings("unchecked")
-	@Override
-	public Set<Entry<K, V>> entrySet() {
-		Set<Entry<K, V>> entrySet = new ArrayMapEntrySet();
-		for (int i = 0; i < this.pairs; i++) {
-			Entry<K, V> entry = new SimpleEntry<K, V>((K) keys[i], (V) values[i]);
-			entrySet.add(entry);
+		/**
+		 * The following function returns an iterator over the keys array.
+		 * 
+		 * @return returns an ArrayMapIterator of the keys.
+		 */
+		@Override
+		public Iterator<K> iterator() {
+			return new ArrayMapIterator<K>() {
+				@SuppressWarnings("unchecked")
+				@Override
+				K element(int index) {
+					return (K) keys[index];
+				}
+			};
 		}
 		
-		return entrySet;
+		/**
+		 * @return returns an ArrayMapSpliterator of the keys.
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public Spliterator<K> spliterator() {
+			return new ArrayMapSpliterator<K>(index -> (K) keys[index],
+					Spliterator.DISTINCT | Spliterator.NONNULL);
+		}
 	}
 	
 	/**
-	 * The following function removes the passed in entry from ArrayMap. 
+	 * The following class represents a collection of values for the ArrayMap.
 	 * 
-	 * The following function uses the passed in entry's key to find the index of the
-	 * the key value pair and removes them from their array fields. The field pairs
-	 * is decremented since a pair has been removed. This function is to be used by
-	 * the function remove in the private inner class Iterator.
+	 * The following class is a view of the values array of the ArrayMap.
+	 * The class extends AbstractCollection and overrides the methods size,
+	 * contains, iterator, removeIf, removeAll, retainAll and clear.
 	 * 
-	 * @param entry is a key value pair in the object Entry<K, V>.
+	 * @author Fernando Ruiz
+	 *
 	 */
-	public void remove(Entry<K, V> entry) {
-		for (int i = 0; i < this.pairs; i++) {
-			if (entry.getKey().equals(keys[i])) {
-				ArrayList<Object> keyList = new ArrayList<>(Arrays.asList(this.keys));
-				ArrayList<Object> valueList = new ArrayList<>(Arrays.asList(this.values));
-				keyList.remove(i);
-				valueList.remove(i);
-				this.keys = keyList.toArray(new Object[0]);
-				this.values = valueList.toArray(new Object[0]);
-				this.pairs--;
-			}
+	private class ArrayMapValues extends AbstractCollection<V> {
+		
+		/**
+		 * The following function returns the number of pairs in the ArrayMap.
+		 * 
+		 * @return returns int that represents the size of the view.
+		 */
+		@Override
+		public int size() {
+			return pairs;
+		}
+		
+		/**
+		 * The following function returns true if the passed in object is a value.
+		 * 
+		 * @param o is an Object that may be a value in the ArrayMap.
+		 * 
+		 * @return returns a boolean based on if the object is a value.
+		 */
+		@Override
+		public boolean contains(Object o) {
+			return containsValue(o);
+		}
+		
+		/**
+		 * The following function removes the pair of every value that passes
+		 * the filter from the ArrayMap in one pass.
+		 * 
+		 * @param filter is a Predicate that is true for a value to remove.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public boolean removeIf(Predicate<? super V> filter) {
+			Objects.requireNonNull(filter);
+			return removeWhere(i -> filter.test((V) values[i]));
+		}
+		
+		/**
+		 * The following function removes the pair of every value in the passed
+		 * in collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of values to remove.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@Override
+		public boolean removeAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> c.contains(values[i]));
+		}
+		
+		/**
+		 * The following function removes the pair of every value not in the
+		 * passed in collection from the ArrayMap in one pass.
+		 * 
+		 * @param c is a Collection of values to keep.
+		 * 
+		 * @return returns true if any pair was removed.
+		 */
+		@Override
+		public boolean retainAll(Collection<?> c) {
+			Objects.requireNonNull(c);
+			return removeWhere(i -> !c.contains(values[i]));
+		}
+		
+		/**
+		 * The following function removes every pair from the ArrayMap.
+		 */
+		@Override
+		public void clear() {
+			ArrayMap.this.clear();
+		}
+		
+		/**
+		 * The following function returns an iterator over the values array.
+		 * 
+		 * @return returns an ArrayMapIterator of the values.
+		 */
+		@Override
+		public Iterator<V> iterator() {
+			return new ArrayMapIterator<V>() {
+				@SuppressWarnings("unchecked")
+				@Override
+				V element(int index) {
+					return (V) values[index];
+				}
+			};
+		}
+		
+		/**
+		 * @return returns an ArrayMapSpliterator of the values.
+		 */
+		@SuppressWarnings("unchecked")
+		@Override
+		public Spliterator<V> spliterator() {
+			return new ArrayMapSpliterator<V>(index -> (V) values[index], 0);
 		}
 	}
-
 	
 	/**
-	 * The following class represents an entry set for the ArrayMap.
+	 * The following class represents an entry of the ArrayMap.
 	 * 
-	 * The following class represents an iteratorable set of entries 
-	 * that represent key value pairs in the ArrayMap. The class 
-	 * extends AbstractSet and overrides the methods size, contains,
-	 * iterator, and add.
+	 * The following class is a key value pair that reads and writes 
+	 * the ArrayMap's arrays at its index, so setValue changes the 
+	 * ArrayMap. An entry is valid until the ArrayMap has a pair removed.
 	 * 
 	 * @author Fernando Ruiz
 	 *
 	 */
-	private class ArrayMapEntrySet extends AbstractSet<Entry<K,V>> {
+	private class ArrayMapEntry implements Entry<K, V> {
 		
-		private ArrayList<Entry<K, V>> entrySet;
+		private int index;
 		
 		/**
-		 * Constructor for ArrayMapEntrySet.
+		 * Constructor for ArrayMapEntry.
 		 * 
-		 * The constructor assigns the field entrySet to
-		 * an ArrrayList of type Entry<K, V> to hold entries
-		 * representing pairs in the ArrayMap.
+		 * @param index is an int index of a pair in the ArrayMap.
 		 */
-		public ArrayMapEntrySet() {
-			this.entrySet = new ArrayList<Entry<K, V>>();
+		public ArrayMapEntry(int index) {
+			this.index = index;
 		}
 		
 		/**
-		 * The following function returns the size of the entrySet. 
-		 * 
-		 * The following function overrides the function size and returns
-		 * the ArrayMap's field pairs which represents the number of mappings.
-		 * entrySet is a set of entry pairs based on the ArrayMap pairs
-		 * so represents the same size.  
-		 * 
-		 * @return returns int that represents the size of the entrySet
+		 * @return returns the key of the entry.
 		 */
+		@SuppressWarnings("unchecked")
 		@Override
-		public int size() {
-			return pairs;
+		public K getKey() {
+			return (K) keys[index];
 		}
 		
 		/**
-		 * The following function returns a boolean based on whether or not
-		 * the entrySet contains the passed in entry.
-		 * 
-		 * The following function overrides the function contains. It returns
-		 * true if the passed in object is an entry in the entrySet. If the object
-		 * is not an entry or is not in the entrySet false is returned.
-		 * 
-		 * @param o is an Object that may exist in the entry set.
-		 * 
-		 * @return returns a boolean based on if the object is in the entrySet
+		 * @return returns the value of the entry.
 		 */
 		@SuppressWarnings("unchecked")
 		@Override
-		public boolean contains(Object o) {
-			if (o instanceof Entry) {
-				for (Entry<K, V> entry: entrySet) {
-					Entry<K, V> newEntry = (Entry<K, V>) o ;
-					boolean keyEquality = newEntry.getKey().equals(entry.getKey());
-					boolean valEquality = newEntry.getValue().equals(entry.getValue());
-					if (keyEquality && valEquality) {
-						return true;
-					}
-				}
-			}
-			return false;
+		public V getValue() {
+			return (V) values[index];
 		}
 		
 		/**
-		 * The following function returns an iterator that walks
-		 * over the entrySet. 
+		 * The following function replaces the value of the entry in the ArrayMap.
 		 * 
-		 * The following function returns an iterator that walks
-		 * over the entrySet which represents the Entries in the Map. 
-		 * The iterator is implemented in the private inner class
-		 * ArrayMapEntrySetIterator.
+		 * @param value is the new value of type V.
 		 * 
-		 * @return returns an ArrayMapEntrySetIterator to iterate over entrySet
+		 * @return returns the previous value of the entry.
 		 */
+		@SuppressWarnings("unchecked")
 		@Override
-		public Iterator<Entry<K, V>> iterator() {
-			Iterator<Entry<K, V>> iterator = 
-					new ArrayMapEntrySetIterator<Entry<K, V>>(entrySet);
-			return iterator;
+		public V setValue(V value) {
+			V oldVal = (V) values[index];
+			values[index] = value;
+			return oldVal;
 		}
 		
 		/**
-		 * The following function adds the passed in entry to the entry set.
-		 * 
-		 * The following function overrides the function add and adds the passed
-		 * in entry to the entry set using the ArrayList function add. Always
-		 * returns true, since all entries are only added once in the ArrayMap.
+		 * The following function returns true if the passed in object is an
+		 * entry with an equal key and value, as in the Map.Entry spec.
 		 * 
-		 * @param entry is an entry of type Entry<K, V> representing a key value pair.
+		 * @param o is an Object to compare with.
 		 * 
-		 * @return returns true always successful addition to entry set.
+		 * @return returns a boolean based on if the entries are equal.
 		 */
 		@Override
-		public boolean add(Entry<K, V> entry) {
-			entrySet.add(entry);
-			return true;
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> entry = (Entry<?, ?>) o;
+			return Objects.equals(getKey(), entry.getKey()) 
+					&& Objects.equals(getValue(), entry.getValue());
+		}
+		
+		/**
+		 * @return returns the hash code of the entry, as in the Map.Entry spec.
+		 */
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
 		}
 		
+		/**
+		 * @return returns a string of the entry in the format key=value.
+		 */
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
 	}
 	
 	/**
-	 * The following class represents an iterator for ArrayMapEntrySet.
+	 * The following class represents an iterator over the pairs of the ArrayMap.
 	 * 
-	 * The following class is used to iterate over the ArrayMapEntrySet.
+	 * The following class walks the indexes of the ArrayMap's arrays and
+	 * is the base of the iterators for the entry set, key set and values.
 	 * It implements the interface Iterator and has the methods hasNext,
 	 * next, and remove. 
 	 * 
 	 * @author Fernando Ruiz
 	 *
-	 * @param <T> is the type of element in the ArrayMapEntrySet.
+	 * @param <T> is the type of element returned for an index.
 	 */
-	private class ArrayMapEntrySetIterator<T> implements Iterator<T> {
+	private abstract class ArrayMapIterator<T> implements Iterator<T> {
 		
-		private ArrayList<T> entrySet;
 		private int index;
 		private boolean nextCall;
 		private boolean removeCall;
+		private int expectedModCount;
 		
 		/**
-		 * Constructor for ArrayMapEntrySetIterator.
-		 * 
-		 * The constructor assigns the entrySet filed to the
-		 * passed in entrySet. Index of the set is set to zero.
-		 * The fields nextCall and removeCall are set to false,
-		 * they determine whether a entry can be removed by the func.
-		 * remove.
+		 * Constructor for ArrayMapIterator.
 		 * 
-		 * @param entrySet is a Collection<T> to be iterated over.
+		 * Index of the pairs is set to zero. The fields nextCall 
+		 * and removeCall are set to false, they determine whether
+		 * a pair can be removed by the func. remove. The modCount
+		 * is kept to find changes not made by the iterator.
 		 */
-		public ArrayMapEntrySetIterator(Collection<T> entrySet) {
-			this.entrySet = (ArrayList<T>) entrySet;
+		public ArrayMapIterator() {
 			this.index = 0;
 			this.nextCall = false;
 			this.removeCall = false;
-		} 
+			this.expectedModCount = modCount;
+		}
 		
 		/**
-		 * The following function returns a boolean based on whether there
-		 * is a next element in the entry set. 
+		 * The following function returns the element for the pair at the 
+		 * passed in index.
 		 * 
-		 * The following function overrides the function hasNext and
-		 * returns a boolean based on whether there is a next element 
-		 * in the entry set. Uses size of entry set to determine if the
-		 * index can be incremented. 
+		 * @param index is an int index of a pair in the ArrayMap.
+		 * 
+		 * @return returns the element of type T for the pair.
+		 */
+		abstract T element(int index);
+		
+		/**
+		 * The following function returns a boolean based on whether there
+		 * is a next pair in the ArrayMap. 
 		 * 
-		 * @return returns a boolean based on whether there is a next element in the entry set.
+		 * @return returns a boolean based on whether there is a next pair.
 		 */
 		@Override
 		public boolean hasNext() {
-			if(index < entrySet.size()) {
-				return true;
-			}
-			return false;
+			return index < pairs;
 		}
 		
-		
 		/**
-		 * The following function returns the next entry in the entry set.
+		 * The following function returns the element for the next pair.
 		 * 
-		 * The following function overrides the function next and
-		 * returns the next element in the entry set. Sets the field
+		 * The following function overrides the function next. Sets the field
 		 * nextCall to true to represent that the next has been called
 		 * for the object at least once and sets the removeCall to false
-		 * to reset the current elements removal status.Index is
+		 * to reset the current elements removal status. Index is
 		 * incremented to get next element on the next call.
 		 * 
-		 * @return returns the next entry in the entry set of type T.
+		 * @throws NoSuchElementException if there is no next pair.
+		 * @throws ConcurrentModificationException if the ArrayMap was changed
+		 * other than by this iterator.
+		 * @return returns the next element of type T.
 		 */
 		@Override
 		public T next() {
+			checkModCount(expectedModCount);
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
 			//function has been called for object instance
 			this.nextCall = true;
 			//resets removal status of current entry
 			this.removeCall = false;
 			
-			T entry = entrySet.get(index);
+			T element = element(index);
 			this.index++;
-			return entry;
+			return element;
 		}
 		
 		/**
@@ -344,18 +1417,180 @@ public class ArrayMap<K, V> extends AbstractMap<K,V> {
 		 * 
 		 * @throws IllegalStateException if the next method has not yet been called, or the remove 
 		 * method has already been called after the last call to the next method.
+		 * @throws ConcurrentModificationException if the ArrayMap was changed
+		 * other than by this iterator.
 		 */
-		@SuppressWarnings("unchecked")
 		@Override
 		public void remove() {
 			if(this.nextCall == false || this.removeCall == true) {
 				throw new IllegalStateException();
 			}else {
-				Entry<K, V> entry = (Entry<K, V>) entrySet.get(index-1);
-				ArrayMap.this.remove(entry);
-				//this.entrySet.remove(index-1);
+				checkModCount(expectedModCount);
+				//pairs after the removed one move down an index
+				this.index--;
+				removeAt(index);
+				this.expectedModCount = modCount;
 				this.removeCall = true;
 			}
 		}
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * The following class represents a spliterator over the pairs of the ArrayMap.
+	 * 
+	 * The following class covers a range of indexes of the ArrayMap's arrays, so
+	 * it knows its exact size and splits by cutting the range in half. This lets
+	 * parallel streams of the entry set, key set and values split the work evenly.
+	 * The end of the range is bound on first use, and like ArrayMapIterator it
+	 * is fail-fast.
+	 * 
+	 * @author Fernando Ruiz
+	 *
+	 * @param <T> is the type of element returned for an index.
+	 */
+	private class ArrayMapSpliterator<T> implements Spliterator<T> {
+		
+		private final IntFunction<T> element;
+		private final int characteristics;
+		private int index;
+		private int fence;
+		private int expectedModCount;
+		
+		/**
+		 * Constructor for ArrayMapSpliterator over every pair.
+		 * 
+		 * @param element is an IntFunction that returns the element for an index.
+		 * @param characteristics is an int of the Spliterator characteristics of
+		 * the elements, SIZED, SUBSIZED and ORDERED are added.
+		 */
+		public ArrayMapSpliterator(IntFunction<T> element, int characteristics) {
+			this(element, characteristics | Spliterator.SIZED | Spliterator.SUBSIZED
+					| Spliterator.ORDERED, 0, -1, 0);
+		}
+		
+		/**
+		 * Constructor for ArrayMapSpliterator over a range of pairs.
+		 * 
+		 * @param element is an IntFunction that returns the element for an index.
+		 * @param characteristics is an int of the Spliterator characteristics.
+		 * @param index is the int first index of the range.
+		 * @param fence is the int index after the range, -1 until it is bound.
+		 * @param expectedModCount is the int modCount when the fence was bound.
+		 */
+		private ArrayMapSpliterator(IntFunction<T> element, int characteristics, 
+				int index, int fence, int expectedModCount) {
+			this.element = element;
+			this.characteristics = characteristics;
+			this.index = index;
+			this.fence = fence;
+			this.expectedModCount = expectedModCount;
+		}
+		
+		/**
+		 * The following function returns the end of the range, binding it
+		 * to pairs on first use.
+		 * 
+		 * @return returns the int index after the range.
+		 */
+		private int getFence() {
+			if (fence < 0) {
+				this.expectedModCount = modCount;
+				this.fence = pairs;
+			}
+			return fence;
+		}
+		
+		/**
+		 * The following function splits off the first half of the range.
+		 * 
+		 * @return returns an ArrayMapSpliterator of the first half, if the
+		 * range is too small to split returns null
+		 */
+		@Override
+		public Spliterator<T> trySplit() {
+			int hi = getFence();
+			int lo = index;
+			int mid = (lo + hi) >>> 1;
+			if (lo >= mid) {
+				return null;
+			}
+			this.index = mid;
+			return new ArrayMapSpliterator<T>(element, characteristics, lo, mid, expectedModCount);
+		}
+		
+		/**
+		 * The following function performs the passed in action on the next 
+		 * element in the range.
+		 * 
+		 * @param action is a Consumer of an element.
+		 * 
+		 * @throws ConcurrentModificationException if the ArrayMap was changed.
+		 * @return returns true if there was a next element.
+		 */
+		@Override
+		public boolean tryAdvance(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			int hi = getFence();
+			if (index >= hi) {
+				return false;
+			}
+			checkModCount(expectedModCount);
+			action.accept(element.apply(index++));
+			checkModCount(expectedModCount);
+			return true;
+		}
+		
+		/**
+		 * The following function performs the passed in action on every 
+		 * element left in the range.
+		 * 
+		 * @param action is a Consumer of an element.
+		 * 
+		 * @throws ConcurrentModificationException if the ArrayMap was changed.
+		 */
+		@Override
+		public void forEachRemaining(Consumer<? super T> action) {
+			Objects.requireNonNull(action);
+			int hi = getFence();
+			checkModCount(expectedModCount);
+			for (; index < hi && modCount == expectedModCount; index++) {
+				action.accept(element.apply(index));
+			}
+			checkModCount(expectedModCount);
+		}
+		
+		/**
+		 * @return returns the exact number of elements left in the range.
+		 */
+		@Override
+		public long estimateSize() {
+			return getFence() - index;
+		}
+		
+		/**
+		 * @return returns the int Spliterator characteristics of the elements.
+		 */
+		@Override
+		public int characteristics() {
+			return characteristics;
+		}
+	}
+	
+	/**
+	 * The following class represents an iterator for ArrayMapEntrySet.
+	 * 
+	 * The following class is used to iterate over the ArrayMapEntrySet.
+	 * Each entry returned is an ArrayMapEntry that writes through to
+	 * the ArrayMap.
+	 * 
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ArrayMapEntrySetIterator extends ArrayMapIterator<Entry<K, V>> {
+		
+		@Override
+		Entry<K, V> element(int index) {
+			return new ArrayMapEntry(index);
+		}
+	}
+}
@@ -1,9 +1,15 @@
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.Test;
 
 /** 
@@ -113,4 +119,243 @@ public class ArrayMapTests {
 		//test that remove throws IllegalStateException
 		assertThrows(IllegalStateException.class, ()->{ iter.remove();});
 	}
-}
\ No newline at end of file
+	
+    /**
+     * Tests ArrayMap methods in hashed mode.
+     */
+	@Test
+	void testHashedArrayMap() {
+		ArrayMap<Integer, String> map = new ArrayMap<>(true);
+		
+		//test put past several table resizes
+		for (int i = 0; i < 1000; i++) {
+			assertNull(map.put(i, "v" + i));
+		}
+		assertEquals(map.size(), 1000);
+		
+		//alter existing key
+		assertEquals(map.put(500, "five hundred"), "v500");
+		assertEquals(map.size(), 1000);
+		
+		//test get and containsKey
+		assertEquals(map.get(500), "five hundred");
+		assertEquals(map.get(999), "v999");
+		assertNull(map.get(1000));
+		assertNull(map.get("not an integer"));
+		assertTrue(map.containsKey(0));
+		assertFalse(map.containsKey(-1));
+		
+		//test insertion order is kept
+		int i = 0;
+		for (Entry<Integer, String> entry : map.entrySet()) {
+			assertEquals(i, entry.getKey());
+			i++;
+		}
+	}
+	
+    /**
+     * Tests that entrySet, keySet and values are live views.
+     */
+	@Test
+	void testViews() {
+		ArrayMap<String, Integer> map = new ArrayMap<>(true);
+		map.put("Test1", 1);
+		map.put("Test2", 2);
+		
+		//test views are not rebuilt per call
+		Set<Entry<String, Integer>> set = map.entrySet();
+		assertSame(set, map.entrySet());
+		assertSame(map.keySet(), map.keySet());
+		assertSame(map.values(), map.values());
+		
+		//test views see later puts
+		map.put("Test3", 3);
+		assertEquals(set.size(), 3);
+		assertTrue(map.keySet().contains("Test3"));
+		assertTrue(map.values().contains(3));
+		
+		//test setValue writes through
+		for (Entry<String, Integer> entry : set) {
+			entry.setValue(entry.getValue() * 10);
+		}
+		assertEquals(map.get("Test1"), 10);
+		assertEquals(map.get("Test3"), 30);
+		
+		//test remove through the key set
+		assertTrue(map.keySet().remove("Test2"));
+		assertFalse(map.keySet().remove("Test2"));
+		assertEquals(map.size(), 2);
+		Iterator<Integer> iter = map.values().iterator();
+		assertEquals(iter.next(), 10);
+		assertEquals(iter.next(), 30);
+		assertFalse(iter.hasNext());
+	}
+	
+    /**
+     * Tests ArrayMap removal and bulk removal methods.
+     */
+	@Test
+	void testRemove() {
+		ArrayMap<Integer, String> map = new ArrayMap<>(true);
+		for (int i = 0; i < 20; i++) {
+			map.put(i, "v" + i);
+		}
+		
+		//test ordered remove keeps insertion order
+		assertEquals(map.remove((Object) 3), "v3");
+		assertNull(map.remove((Object) 3));
+		assertEquals(map.size(), 19);
+		Iterator<Integer> iter = map.keySet().iterator();
+		assertEquals(iter.next(), 0);
+		assertEquals(iter.next(), 1);
+		assertEquals(iter.next(), 2);
+		assertEquals(iter.next(), 4);
+		
+		//test unordered remove moves the last pair into the hole
+		assertEquals(map.removeUnordered(0), "v0");
+		assertEquals(map.keySet().iterator().next(), 19);
+		assertNull(map.removeUnordered(0));
+		assertEquals(map.get(19), "v19");
+		
+		//test bulk removal
+		assertTrue(map.keySet().removeIf(key -> key % 2 == 0));
+		assertFalse(map.keySet().removeIf(key -> key % 2 == 0));
+		assertEquals(map.size(), 9);
+		assertFalse(map.containsKey(4));
+		assertTrue(map.values().retainAll(Arrays.asList("v1", "v5", "v19")));
+		assertEquals(map.size(), 3);
+		assertEquals(map.get(5), "v5");
+		
+		//test clear and reuse
+		map.clear();
+		assertEquals(map.size(), 0);
+		assertNull(map.get(1));
+		map.put(1, "one");
+		assertEquals(map.get(1), "one");
+	}
+	
+    /**
+     * Tests the Map default methods overridden by ArrayMap.
+     */
+	@Test
+	void testDefaultMethods() {
+		ArrayMap<String, Integer> map = new ArrayMap<>(true);
+		
+		//test counting with merge and getOrDefault
+		for (char c : "HELLO".toCharArray()) {
+			map.merge(c + "", 1, Integer::sum);
+		}
+		assertEquals(map.get("L"), 2);
+		assertEquals(map.getOrDefault("Z", 0), 0);
+		//merge to null removes
+		assertNull(map.merge("H", 1, (oldVal, value) -> null));
+		assertFalse(map.containsKey("H"));
+		
+		//test putIfAbsent and computeIfAbsent
+		assertEquals(map.putIfAbsent("E", 5), 1);
+		assertNull(map.putIfAbsent("A", 5));
+		assertEquals(map.computeIfAbsent("A", key -> 9), 5);
+		assertEquals(map.computeIfAbsent("B", key -> 9), 9);
+		assertNull(map.computeIfAbsent("C", key -> null));
+		assertFalse(map.containsKey("C"));
+		
+		//test compute and computeIfPresent
+		assertEquals(map.compute("B", (key, val) -> val + 1), 10);
+		assertNull(map.computeIfPresent("B", (key, val) -> null));
+		assertFalse(map.containsKey("B"));
+		
+		//test containsValue, replaceAll and forEach
+		assertTrue(map.containsValue(5));
+		map.replaceAll((key, val) -> val * 2);
+		StringBuilder order = new StringBuilder();
+		map.forEach((key, val) -> order.append(key).append(val));
+		assertEquals(order.toString(), "E2L4O2A10");
+		
+		//test equals and hashCode against a JDK map
+		Map<String, Integer> other = new HashMap<>(map);
+		assertEquals(map, other);
+		assertEquals(other, map);
+		assertEquals(map.hashCode(), other.hashCode());
+		other.put("E", 3);
+		assertNotEquals(map, other);
+	}
+	
+    /**
+     * Tests freezing an ArrayMap into a FrozenArrayMap.
+     */
+	@Test
+	void testFreeze() {
+		ArrayMap<String, Integer> map = new ArrayMap<>(true);
+		for (int i = 0; i < 500; i++) {
+			map.put("Test" + i, i);
+		}
+		FrozenArrayMap<String, Integer> frozen = map.freeze();
+		
+		//test lookups and order
+		assertEquals(frozen.size(), 500);
+		assertEquals(frozen.get("Test0"), 0);
+		assertEquals(frozen.get("Test499"), 499);
+		assertNull(frozen.get("Test500"));
+		assertFalse(frozen.containsKey(null));
+		assertEquals(frozen, map);
+		Iterator<String> iter = frozen.keySet().iterator();
+		assertEquals(iter.next(), "Test0");
+		assertEquals(iter.next(), "Test1");
+		
+		//test mutation is rejected
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.put("Test0", 1);});
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.remove("Test0");});
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.merge("Test0", 1, Integer::sum);});
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.entrySet().iterator().remove();});
+		
+		//test keys with the same hashCode still freeze
+		ArrayMap<String, Integer> same = new ArrayMap<>();
+		same.put("Aa", 1);
+		same.put("BB", 2);
+		FrozenArrayMap<String, Integer> frozenSame = same.freeze();
+		assertEquals(frozenSame.get("Aa"), 1);
+		assertEquals(frozenSame.get("BB"), 2);
+		assertNull(frozenSame.get("C#"));
+	}
+	
+    /**
+     * Tests ArrayMap spliterators and fail-fast iteration.
+     */
+	@Test
+	void testSpliterator() {
+		ArrayMap<String, Integer> map = new ArrayMap<>(true);
+		for (int i = 0; i < 1000; i++) {
+			map.put("Test" + i, i);
+		}
+		
+		//test parallel streams see every pair once and in order
+		assertEquals(map.values().parallelStream().mapToLong(Integer::longValue).sum(), 499500L);
+		assertEquals(map.keySet().parallelStream().distinct().count(), 1000L);
+		assertEquals(map.entrySet().parallelStream().filter(e -> e.getValue() % 2 == 0)
+				.map(Entry::getKey).collect(Collectors.toList()).get(1), "Test2");
+		
+		//test splitting covers the range exactly
+		Spliterator<String> spliterator = map.keySet().spliterator();
+		assertEquals(spliterator.estimateSize(), 1000L);
+		Spliterator<String> prefix = spliterator.trySplit();
+		assertEquals(prefix.estimateSize() + spliterator.estimateSize(), 1000L);
+		assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.DISTINCT));
+		
+		//test changes not made by the iterator are found
+		Iterator<String> iter = map.keySet().iterator();
+		iter.next();
+		map.put("New", 0);
+		assertThrows(ConcurrentModificationException.class, ()->{ iter.next();});
+		assertThrows(ConcurrentModificationException.class, ()->{ 
+			map.forEach((k, v) -> map.remove("New"));});
+		assertThrows(ConcurrentModificationException.class, ()->{ 
+			map.computeIfAbsent("Other", k -> map.put("Inner", 1));});
+		//replacing a value is not a structural change
+		Iterator<String> valid = map.keySet().iterator();
+		valid.next();
+		map.put("Test0", -1);
+		valid.next();
+		valid.remove();
+		assertFalse(map.containsKey("Test1"));
+	}
+}
@@ -0,0 +1,277 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+
+/**
+ * The following class represents a BatchRunner, which plays a Cryptogram game from
+ * a script of commands, such as a recorded session.
+ *
+ * The following class reads the commands of the text interface, "replace X by Y",
+ * "X = Y", "hint", "freq" and "exit", one per line. Upper and lower case are the
+ * same, blank lines and lines that start with '#' are skipped. The lines are read
+ * in blocks into a char buffer and parsed in place, so a command makes no strings
+ * and replacements go straight to the controller. The display is only written at
+ * the checkpoints, every so many commands, and at the end, along with the number
+ * of commands run per second. Like the text interface, the script stops when the
+ * game is solved or at "exit". A line that is not a command is counted and
+ * reported with its line number, and the script goes on.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramController
+ * @see CryptogramTextView
+ */
+public class BatchRunner {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int MAX_TOKENS = 4;
+	private final CryptogramController game;
+	private final Appendable out;
+	private final int checkpoint;
+	private final int[] tokenStarts;
+	private final int[] tokenEnds;
+	private char[] buf;
+	private long commands;
+	private long invalid;
+	private long lineNumber;
+	private boolean exited;
+
+	/**
+	 * Constructor for BatchRunner.
+	 *
+	 * @param game is a CryptogramController of the game to play.
+	 * @param out is an Appendable to write the display and messages to.
+	 * @param checkpoint is the int number of commands between displays, 0 for only at the end.
+	 *
+	 * @throws IllegalArgumentException if checkpoint is negative.
+	 */
+	public BatchRunner(CryptogramController game, Appendable out, int checkpoint) {
+		if (checkpoint < 0) {
+			throw new IllegalArgumentException("Checkpoint " + checkpoint);
+		}
+		this.game = game;
+		this.out = out;
+		this.checkpoint = checkpoint;
+		this.tokenStarts = new int[MAX_TOKENS + 1];
+		this.tokenEnds = new int[MAX_TOKENS + 1];
+		this.buf = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * The following function returns the checkpoint of the passed in command
+	 * line value.
+	 *
+	 * @param value is a String of the number of commands between displays, may be null.
+	 *
+	 * @return returns the int checkpoint, 0 if value is null.
+	 *
+	 * @throws IllegalArgumentException if value is not a number of 0 or more.
+	 */
+	public static int parseCheckpoint(String value) {
+		if (value == null) {
+			return 0;
+		}
+		int checkpoint;
+		try {
+			checkpoint = Integer.parseInt(value);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Checkpoint " + value);
+		}
+		if (checkpoint < 0) {
+			throw new IllegalArgumentException("Checkpoint " + checkpoint);
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * The following function runs every command of the passed in script, then
+	 * writes the display and the number of commands per second.
+	 *
+	 * The Reader is read to the end or until the game stops, it is not closed.
+	 *
+	 * @param in is a Reader of the script.
+	 *
+	 * @throws IOException if in or out throws.
+	 */
+	public void run(Reader in) throws IOException {
+		long start = System.nanoTime();
+		int length = 0;
+		boolean eof = false;
+		while (!eof && !isStopped()) {
+			//the chars kept from the last read have no newline, so only new chars are scanned
+			int scanFrom = length;
+			int read = in.read(buf, length, buf.length - length);
+			if (read < 0) {
+				eof = true;
+			} else {
+				length += read;
+			}
+			//run every whole line, or the rest at the end
+			int lineStart = 0;
+			for (int i = scanFrom; i < length && !isStopped(); i++) {
+				if (buf[i] == '\n') {
+					runLine(lineStart, i);
+					lineStart = i + 1;
+				}
+			}
+			if (eof && lineStart < length && !isStopped()) {
+				runLine(lineStart, length);
+				lineStart = length;
+			}
+			//keep the part of a line that hasn't been read yet
+			length -= lineStart;
+			System.arraycopy(buf, lineStart, buf, 0, length);
+			if (length == buf.length) {
+				this.buf = Arrays.copyOf(buf, buf.length * 2);
+			}
+		}
+		long elapsed = System.nanoTime() - start;
+		game.writeCryptogram(out);
+		if (game.isGameOver()) {
+			out.append("You got it!\n");
+		}
+		double seconds = elapsed / 1e9;
+		out.append(String.format("%d commands in %.3f s (%.0f commands/sec), %d invalid%n",
+				commands, seconds, seconds > 0 ? commands / seconds : 0.0, invalid));
+	}
+
+	/**
+	 * @return returns a boolean, true if the game is solved or the script exited.
+	 */
+	private boolean isStopped() {
+		return exited || game.isGameOver();
+	}
+
+	/**
+	 * The following function parses and runs the line of the buffer between
+	 * the passed in offsets.
+	 *
+	 * @param from is the int index of the first char of the line.
+	 * @param to is the int index after the last char of the line.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	private void runLine(int from, int to) throws IOException {
+		lineNumber++;
+		int tokens = tokenize(from, to);
+		if (tokens == 0 || buf[tokenStarts[0]] == '#') {
+			return;
+		}
+		commands++;
+		if (tokens == 4 && isWord(0, "replace") && isLetter(1) && isWord(2, "by") && isLetter(3)) {
+			game.makeReplacement(letterAt(1), letterAt(3));
+		} else if (tokens == 3 && isLetter(0) && isWord(1, "=") && isLetter(2)) {
+			game.makeReplacement(letterAt(0), letterAt(2));
+		} else if (tokens == 1 && isWord(0, "hint")) {
+			String[] hint = game.getHint();
+			out.append("Hint: ").append(hint[0]).append(" = ").append(hint[1]).append('\n');
+		} else if (tokens == 1 && isWord(0, "freq")) {
+			game.writeFreq(out);
+			out.append('\n');
+		} else if (tokens == 1 && isWord(0, "exit")) {
+			this.exited = true;
+		} else {
+			commands--;
+			invalid++;
+			out.append("Line ").append(Long.toString(lineNumber)).append(": Enter valid command!\n");
+			return;
+		}
+		//after exit or the solving replacement the display is only written at the end
+		if (checkpoint > 0 && commands % checkpoint == 0 && !isStopped()) {
+			game.writeCryptogram(out);
+			out.append('\n');
+		}
+	}
+
+	/**
+	 * The following function finds the words of a line, which are separated
+	 * by spaces or tabs. A '\r' at the end of the line is skipped.
+	 *
+	 * @param from is the int index of the first char of the line.
+	 * @param to is the int index after the last char of the line.
+	 *
+	 * @return returns the int number of words, at most one more than MAX_TOKENS.
+	 */
+	private int tokenize(int from, int to) {
+		int tokens = 0;
+		int i = from;
+		while (i < to && tokens <= MAX_TOKENS) {
+			while (i < to && isBlank(buf[i])) {
+				i++;
+			}
+			if (i == to) {
+				break;
+			}
+			tokenStarts[tokens] = i;
+			while (i < to && !isBlank(buf[i])) {
+				i++;
+			}
+			tokenEnds[tokens] = i;
+			tokens++;
+		}
+		return tokens;
+	}
+
+	/**
+	 * @param c is a char of a line.
+	 *
+	 * @return returns a boolean, true if c separates words.
+	 */
+	private static boolean isBlank(char c) {
+		return c == ' ' || c == '\t' || c == '\r';
+	}
+
+	/**
+	 * The following function returns true if a word of the line is the
+	 * passed in lowercase word, ignoring case.
+	 *
+	 * @param token is the int index of the word in the line.
+	 * @param word is a lowercase String.
+	 *
+	 * @return returns a boolean, true if the word matches.
+	 */
+	private boolean isWord(int token, String word) {
+		int start = tokenStarts[token];
+		if (tokenEnds[token] - start != word.length()) {
+			return false;
+		}
+		for (int i = 0; i < word.length(); i++) {
+			if (Character.toLowerCase(buf[start + i]) != word.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @param token is the int index of the word in the line.
+	 *
+	 * @return returns a boolean, true if the word is one letter of the alphabet.
+	 */
+	private boolean isLetter(int token) {
+		return tokenEnds[token] - tokenStarts[token] == 1 && CipherMap.indexOf(buf[tokenStarts[token]]) >= 0;
+	}
+
+	/**
+	 * @param token is the int index of a word that is one letter.
+	 *
+	 * @return returns the capitalized char of the letter.
+	 */
+	private char letterAt(int token) {
+		return Character.toUpperCase(buf[tokenStarts[token]]);
+	}
+
+	/**
+	 * @return returns the long number of commands run.
+	 */
+	public long getCommands() {
+		return commands;
+	}
+
+	/**
+	 * @return returns the long number of lines that were not commands.
+	 */
+	public long getInvalid() {
+		return invalid;
+	}
+}
@@ -0,0 +1,88 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests playing a game from a script with BatchRunner.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see BatchRunner
+ */
+public class BatchRunnerTests {
+
+    /**
+     * Tests the commands of a script are parsed and run.
+     */
+	@Test
+	void testBatchRunner() throws IOException {
+		CryptogramModel model = new CryptogramModel("Abba cab", 335);
+		CipherEngine engine = model.getCipherEngine();
+		char a = engine.encrypt('A');
+		char b = engine.encrypt('B');
+		char c = engine.encrypt('C');
+
+		//test both replace commands, case, blank lines, comments and invalid lines
+		String script = "# a comment\n"
+				+ "REPLACE " + Character.toLowerCase(a) + " By a\r\n"
+				+ "\n"
+				+ "  " + b + " = q  \n"
+				+ "replace " + a + " with b\n"
+				+ "hint\n"
+				+ "freq\n"
+				+ "1 = A\n";
+		StringBuilder out = new StringBuilder();
+		BatchRunner runner = new BatchRunner(new CryptogramController(model), out, 0);
+		runner.run(new StringReader(script));
+		assertEquals(runner.getCommands(), 4);
+		assertEquals(runner.getInvalid(), 2);
+		assertEquals(model.getDecryptedString(), "AQQA ?AQ");
+		assertTrue(out.toString().contains("Line 5: Enter valid command!"));
+		assertTrue(out.toString().contains("Line 8: Enter valid command!"));
+		assertTrue(out.toString().contains("Hint: "));
+		assertTrue(out.toString().contains("commands/sec"));
+		assertFalse(model.isSolved());
+
+		//test the script stops when the game is solved, the last line has no newline
+		out.setLength(0);
+		runner = new BatchRunner(new CryptogramController(model), out, 1);
+		runner.run(new StringReader(b + " = b\n" + c + " = c\nfreq\nhint\n" + a + " = z"));
+		assertEquals(runner.getCommands(), 2);
+		assertTrue(model.isSolved());
+		assertTrue(out.toString().contains("You got it!"));
+		assertFalse(out.toString().contains("Hint: "));
+
+		//test exit stops the script and a line longer than the buffer is read
+		model = new CryptogramModel("Abba cab", 335);
+		StringBuilder longLine = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			longLine.append(' ');
+		}
+		runner = new BatchRunner(new CryptogramController(model), new StringBuilder(), 0);
+		runner.run(new StringReader(longLine + "exit\n" + a + " = a\n"));
+		assertEquals(runner.getCommands(), 1);
+		assertEquals(model.getDecryptedString(), "???? ???");
+
+		//test exit on a checkpoint doesn't write the display before the last one
+		out.setLength(0);
+		runner = new BatchRunner(new CryptogramController(model), out, 1);
+		runner.run(new StringReader("exit\n"));
+		String display = model.getEncryptedString();
+		assertEquals(out.indexOf(display), out.lastIndexOf(display));
+	}
+
+    /**
+     * Tests checkpoints that are not numbers of 0 or more are rejected.
+     */
+	@Test
+	void testCheckpoint() {
+		assertEquals(BatchRunner.parseCheckpoint(null), 0);
+		assertEquals(BatchRunner.parseCheckpoint("250"), 250);
+		assertThrows(IllegalArgumentException.class, () -> BatchRunner.parseCheckpoint("x"));
+		assertThrows(IllegalArgumentException.class, () -> BatchRunner.parseCheckpoint("-5"));
+		CryptogramController game = new CryptogramController(new CryptogramModel("Abba cab", 335));
+		assertThrows(IllegalArgumentException.class, () -> new BatchRunner(game, new StringBuilder(), -1));
+	}
+}
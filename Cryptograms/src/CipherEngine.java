@@ -0,0 +1,196 @@
+/**
+ * The following class represents a CipherEngine, which encrypts text with the
+ * substitution key of a CipherMap.
+ *
+ * The following class copies the key into a 26 entry table, one slot per letter,
+ * and from it makes a table of every ASCII char, so a char is encrypted by one
+ * array read with no branch on whether it is a letter. Letters are encrypted to
+ * the capitalized letter of the key, and any other char, including letters the
+ * key does not map and chars past ASCII, is copied as is. The engine works on
+ * char and byte arrays in place or into another array, so a large text or many
+ * quotes can be encrypted without making a string per char. Bytes are treated as
+ * ASCII, and since every byte of a multi-byte UTF-8 char is past ASCII, UTF-8 text
+ * can be encrypted as bytes too. A CipherEngine can't be changed, so it can be used
+ * by many threads at once.
+ *
+ * @author Fernando Ruiz
+ * @see CipherMap
+ * @see CryptogramModel
+ */
+public class CipherEngine {
+
+	private static final int ASCII_SIZE = 128;
+	private final char[] key;
+	private final char[] table;
+
+	/**
+	 * Constructor for CipherEngine.
+	 *
+	 * @param map is a CipherMap of the letters to encrypt to.
+	 */
+	public CipherEngine(CipherMap map) {
+		this.key = new char[CipherMap.ALPHABET_SIZE];
+		for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			key[i] = map.get((char) ('A' + i));
+		}
+		this.table = makeTable(key);
+	}
+
+	/**
+	 * Constructor for CipherEngine from a key table.
+	 *
+	 * @param key is a char array of 26 capitalized letters or NONE.
+	 */
+	private CipherEngine(char[] key) {
+		this.key = key;
+		this.table = makeTable(key);
+	}
+
+	/**
+	 * The following function makes the table of every ASCII char from the key.
+	 *
+	 * @param key is a char array of 26 capitalized letters or NONE.
+	 *
+	 * @return returns a char array of 128 encrypted chars.
+	 */
+	private static char[] makeTable(char[] key) {
+		char[] table = new char[ASCII_SIZE];
+		for (int c = 0; c < ASCII_SIZE; c++) {
+			table[c] = (char) c;
+		}
+		for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			if (key[i] != CipherMap.NONE) {
+				table['A' + i] = key[i];
+				table['a' + i] = key[i];
+			}
+		}
+		return table;
+	}
+
+	/**
+	 * The following function returns an engine that undoes this engine.
+	 *
+	 * Letters that two letters of the key map to are decrypted to the last one.
+	 *
+	 * @return returns a CipherEngine of the inverse key.
+	 */
+	public CipherEngine inverse() {
+		char[] inverse = new char[CipherMap.ALPHABET_SIZE];
+		for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			if (key[i] != CipherMap.NONE) {
+				inverse[key[i] - 'A'] = (char) ('A' + i);
+			}
+		}
+		return new CipherEngine(inverse);
+	}
+
+	/**
+	 * The following function returns the encrypted passed in char.
+	 *
+	 * @param c is a char to encrypt.
+	 *
+	 * @return returns the capitalized letter of the key, if N/A returns c
+	 */
+	public char encrypt(char c) {
+		return c < ASCII_SIZE ? table[c] : c;
+	}
+
+	/**
+	 * The following function encrypts the passed in text.
+	 *
+	 * @param text is a CharSequence to encrypt.
+	 *
+	 * @return returns a String of the encrypted text.
+	 */
+	public String encrypt(CharSequence text) {
+		int length = text.length();
+		char[] str = new char[length];
+		for (int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			str[i] = c < ASCII_SIZE ? table[c] : c;
+		}
+		return new String(str);
+	}
+
+	/**
+	 * The following function encrypts chars of the source array into the
+	 * destination array, which may be the same array.
+	 *
+	 * @param src is a char array to encrypt.
+	 * @param srcPos is the int index of the first char to encrypt.
+	 * @param dest is a char array to write the encrypted chars to.
+	 * @param destPos is the int index to write the first char to.
+	 * @param length is the int number of chars to encrypt.
+	 *
+	 * @throws IndexOutOfBoundsException if a range is outside of its array.
+	 */
+	public void encrypt(char[] src, int srcPos, char[] dest, int destPos, int length) {
+		checkRange(src.length, srcPos, length);
+		checkRange(dest.length, destPos, length);
+		for (int i = 0; i < length; i++) {
+			char c = src[srcPos + i];
+			dest[destPos + i] = c < ASCII_SIZE ? table[c] : c;
+		}
+	}
+
+	/**
+	 * The following function encrypts ASCII bytes of the source array into the
+	 * destination array, which may be the same array.
+	 *
+	 * @param src is a byte array to encrypt.
+	 * @param srcPos is the int index of the first byte to encrypt.
+	 * @param dest is a byte array to write the encrypted bytes to.
+	 * @param destPos is the int index to write the first byte to.
+	 * @param length is the int number of bytes to encrypt.
+	 *
+	 * @throws IndexOutOfBoundsException if a range is outside of its array.
+	 */
+	public void encrypt(byte[] src, int srcPos, byte[] dest, int destPos, int length) {
+		checkRange(src.length, srcPos, length);
+		checkRange(dest.length, destPos, length);
+		for (int i = 0; i < length; i++) {
+			byte b = src[srcPos + i];
+			//bytes past ASCII are negative
+			dest[destPos + i] = b >= 0 ? (byte) table[b] : b;
+		}
+	}
+
+	/**
+	 * The following function encrypts every passed in text in one pass, reusing
+	 * one buffer so the only objects made are the encrypted strings.
+	 *
+	 * @param texts is a String array to encrypt.
+	 *
+	 * @return returns a String array of the encrypted texts, in the same order.
+	 */
+	public String[] encryptAll(String[] texts) {
+		String[] encrypted = new String[texts.length];
+		char[] buf = new char[0];
+		for (int i = 0; i < texts.length; i++) {
+			String text = texts[i];
+			int length = text.length();
+			if (buf.length < length) {
+				buf = new char[Math.max(length, buf.length * 2)];
+			}
+			text.getChars(0, length, buf, 0);
+			encrypt(buf, 0, buf, 0, length);
+			encrypted[i] = new String(buf, 0, length);
+		}
+		return encrypted;
+	}
+
+	/**
+	 * The following function throws if a range is outside of an array.
+	 *
+	 * @param arrayLength is the int length of the array.
+	 * @param pos is the int index of the start of the range.
+	 * @param length is the int length of the range.
+	 *
+	 * @throws IndexOutOfBoundsException if the range is outside of the array.
+	 */
+	private static void checkRange(int arrayLength, int pos, int length) {
+		if (pos < 0 || length < 0 || pos > arrayLength - length) {
+			throw new IndexOutOfBoundsException("Range " + pos + " + " + length + " of " + arrayLength);
+		}
+	}
+}
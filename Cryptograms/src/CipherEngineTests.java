@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class CipherEngine.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see CipherEngine
+ */
+public class CipherEngineTests {
+
+    /**
+     * Tests CipherEngine Methods.
+     */
+	@Test
+	void testCipherEngine() {
+		//shift every letter by one
+		CipherMap map = new CipherMap();
+		for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			map.put((char) ('A' + i), (char) ('A' + (i + 1) % CipherMap.ALPHABET_SIZE));
+		}
+		CipherEngine engine = new CipherEngine(map);
+
+		//test letters are capitalized and other chars are kept
+		assertEquals(engine.encrypt('a'), 'B');
+		assertEquals(engine.encrypt('Z'), 'A');
+		assertEquals(engine.encrypt("Hello, World! - \u00e9"), "IFMMP, XPSME! - \u00e9");
+		assertEquals(engine.inverse().encrypt("IFMMP"), "HELLO");
+
+		//test arrays in place and into another array
+		char[] chars = "xxABCxx".toCharArray();
+		engine.encrypt(chars, 2, chars, 2, 3);
+		assertEquals(new String(chars), "xxBCDxx");
+		byte[] bytes = "caf\u00e9 ok".getBytes(StandardCharsets.UTF_8);
+		byte[] out = new byte[bytes.length];
+		engine.encrypt(bytes, 0, out, 0, bytes.length);
+		assertEquals(new String(out, StandardCharsets.UTF_8), "DBG\u00e9 PL");
+		assertThrows(IndexOutOfBoundsException.class, ()->{ engine.encrypt(chars, 5, chars, 0, 3);});
+
+		//test many texts at once
+		String[] encrypted = engine.encryptAll(new String[] {"A", "", "Longer text here"});
+		assertArrayEquals(encrypted, new String[] {"B", "", "MPOHFS UFYU IFSF"});
+
+		//test letters the key does not map are kept
+		CipherMap partial = new CipherMap();
+		partial.put('A', 'Q');
+		assertEquals(new CipherEngine(partial).encrypt("ABC"), "QBC");
+	}
+}
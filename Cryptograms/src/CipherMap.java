@@ -0,0 +1,176 @@
+/**
+ * The following class represents a CipherMap, which is used to replace an
+ * ArrayMap of one letter strings.
+ *
+ * The following class represents a map of letters to letters for a substitution
+ * cipher. The keys and values are chars stored in a table with one slot per letter
+ * of the alphabet, so a letter is looked up by its index and no strings or boxed
+ * chars are made. Keys and values are capitalized. The class has the following
+ * methods: put, get, containsKey, remove, size, clear and freeze. A frozen CipherMap
+ * can't be changed.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramModel
+ */
+public class CipherMap {
+
+	public static final int ALPHABET_SIZE = 26;
+	public static final char NONE = '\0';
+	private char[] table;
+	private int pairs;
+	private boolean frozen;
+
+	/**
+	 * Constructor for CipherMap.
+	 *
+	 * The constructor assigns a table with a slot for
+	 * every letter of the alphabet, all unmapped. Pairs,
+	 * which represents the number of mappings, is set to zero.
+	 */
+	public CipherMap() {
+		this.table = new char[ALPHABET_SIZE];
+		this.pairs = 0;
+	}
+
+	/**
+	 * The following function returns the table index of the passed in letter.
+	 *
+	 * The letter is capitalized so 'a' and 'A' have the same index. Any char
+	 * that is not a letter of the alphabet has no index.
+	 *
+	 * @param letter is a char that may be a letter of the alphabet.
+	 *
+	 * @return returns an int from 0 to 25, if N/A returns -1
+	 */
+	public static int indexOf(char letter) {
+		char upper = Character.toUpperCase(letter);
+		if (upper >= 'A' && upper <= 'Z') {
+			return upper - 'A';
+		}
+		return -1;
+	}
+
+	/**
+	 * The following function maps the passed in key to the passed in value.
+	 *
+	 * Both letters are capitalized. An existing key has its value replaced
+	 * with the passed in value.
+	 *
+	 * @param key is a char letter to map from.
+	 * @param value is a char letter to map to.
+	 *
+	 * @throws IllegalArgumentException if key or value is not a letter of the alphabet.
+	 * @throws UnsupportedOperationException if the CipherMap is frozen.
+	 * @return returns existing key's previous value if N/A returns NONE
+	 */
+	public char put(char key, char value) {
+		checkNotFrozen();
+		int index = indexOf(key);
+		if (index < 0 || indexOf(value) < 0) {
+			throw new IllegalArgumentException("Not a letter: " + key + " " + value);
+		}
+		char oldVal = table[index];
+		table[index] = Character.toUpperCase(value);
+		if (oldVal == NONE) {
+			this.pairs++;
+		}
+		return oldVal;
+	}
+
+	/**
+	 * The following function returns the value the passed in key maps to.
+	 *
+	 * @param key is a char that may be a mapped letter.
+	 *
+	 * @return returns the capitalized value of the key, if N/A returns NONE
+	 */
+	public char get(char key) {
+		int index = indexOf(key);
+		return index < 0 ? NONE : table[index];
+	}
+
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in key is mapped.
+	 *
+	 * @param key is a char that may be a mapped letter.
+	 *
+	 * @return returns true if the key is mapped.
+	 */
+	public boolean containsKey(char key) {
+		return get(key) != NONE;
+	}
+
+	/**
+	 * The following function removes the mapping of the passed in key.
+	 *
+	 * @param key is a char that may be a mapped letter.
+	 *
+	 * @throws UnsupportedOperationException if the CipherMap is frozen.
+	 * @return returns the removed value of the key, if N/A returns NONE
+	 */
+	public char remove(char key) {
+		checkNotFrozen();
+		int index = indexOf(key);
+		if (index < 0 || table[index] == NONE) {
+			return NONE;
+		}
+		char oldVal = table[index];
+		table[index] = NONE;
+		this.pairs--;
+		return oldVal;
+	}
+
+	/**
+	 * The following function returns the number of mapped letters.
+	 *
+	 * @return returns an int that represents the size(pairs) of the CipherMap.
+	 */
+	public int size() {
+		return this.pairs;
+	}
+
+	/**
+	 * The following function removes every mapping from the CipherMap.
+	 * 
+	 * @throws UnsupportedOperationException if the CipherMap is frozen.
+	 */
+	public void clear() {
+		checkNotFrozen();
+		for (int i = 0; i < ALPHABET_SIZE; i++) {
+			table[i] = NONE;
+		}
+		this.pairs = 0;
+	}
+
+	/**
+	 * The following function returns an immutable copy of the CipherMap.
+	 *
+	 * @return returns a frozen CipherMap with the same mappings.
+	 */
+	public CipherMap freeze() {
+		CipherMap copy = new CipherMap();
+		System.arraycopy(table, 0, copy.table, 0, ALPHABET_SIZE);
+		copy.pairs = this.pairs;
+		copy.frozen = true;
+		return copy;
+	}
+
+	/**
+	 * @return returns true if the CipherMap can't be changed.
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * The following function throws if the CipherMap is frozen.
+	 *
+	 * @throws UnsupportedOperationException if the CipherMap is frozen.
+	 */
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new UnsupportedOperationException("CipherMap is frozen");
+		}
+	}
+}
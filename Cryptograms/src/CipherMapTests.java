@@ -0,0 +1,65 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class CipherMap.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see CipherMap
+ */
+public class CipherMapTests {
+
+    /**
+     * Tests CipherMap Methods.
+     */
+	@Test
+	void testCipherMap() {
+		CipherMap map = new CipherMap();
+
+		//test put capitalizes and returns NONE for a new key
+		assertEquals(map.put('a', 'q'), CipherMap.NONE);
+		assertEquals(map.get('A'), 'Q');
+		assertEquals(map.get('a'), 'Q');
+		//alter existing key
+		assertEquals(map.put('A', 'z'), 'Q');
+		assertEquals(map.size(), 1);
+
+		//test non-letters
+		assertEquals(map.get('?'), CipherMap.NONE);
+		assertFalse(map.containsKey(' '));
+		assertThrows(IllegalArgumentException.class, ()->{ map.put('1', 'A');});
+		assertThrows(IllegalArgumentException.class, ()->{ map.put('A', '!');});
+
+		//test remove and clear
+		map.put('B', 'C');
+		assertEquals(map.remove('a'), 'Z');
+		assertEquals(map.remove('a'), CipherMap.NONE);
+		assertTrue(map.containsKey('B'));
+		map.clear();
+		assertEquals(map.size(), 0);
+		assertFalse(map.containsKey('B'));
+	}
+
+    /**
+     * Tests freezing a CipherMap.
+     */
+	@Test
+	void testFreeze() {
+		CipherMap map = new CipherMap();
+		map.put('A', 'B');
+		CipherMap frozen = map.freeze();
+
+		//test the copy has the mappings and can't be changed
+		assertTrue(frozen.isFrozen());
+		assertFalse(map.isFrozen());
+		assertEquals(frozen.get('A'), 'B');
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.put('C', 'D');});
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.remove('A');});
+		assertThrows(UnsupportedOperationException.class, ()->{ frozen.clear();});
+		//the original can still be changed
+		map.put('C', 'D');
+		assertFalse(frozen.containsKey('C'));
+	}
+}
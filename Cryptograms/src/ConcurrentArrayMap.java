@@ -0,0 +1,710 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * The following class represents a ConcurrentArrayMap, which is a thread-safe
+ * ArrayMap that can be shared by threads.
+ *
+ * The following class represents a generic map that keeps its pairs in an array
+ * of slots addressed by the key's hash, like an ArrayMap in hashed mode. A new pair
+ * is added by a compare and set on an empty slot and a value is changed by a compare
+ * and set on the pair's node, so writers on different keys do not wait on each other.
+ * A removed pair keeps its slot with a removed marker until the slots are rebuilt.
+ * Reads never lock. Only rebuilding the slots, when they are full or cleared, locks
+ * out the writers. Iteration walks the slots array as it was when the iterator was
+ * made and is weakly consistent, it never throws ConcurrentModificationException
+ * and may or may not see changes made after it was made. Pairs are not iterated in
+ * insertion order. Null keys and values are not allowed.
+ *
+ * @author Fernando Ruiz
+ * @see ArrayMap
+ *
+ * @param <K> generic type for keys
+ * @param <V> generic type for values
+ */
+public class ConcurrentArrayMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+	private static final int DEFAULT_SIZE = 16;
+	private static final float LOAD_FACTOR = 0.75f;
+	private static final Object REMOVED = new Object();
+	private volatile AtomicReferenceArray<Node<K, V>> slots;
+	private final AtomicInteger used;
+	private final AtomicInteger pairs;
+	private final ReentrantReadWriteLock rebuildLock;
+	private Set<Entry<K, V>> entryView;
+
+	/**
+	 * Constructor for ConcurrentArrayMap.
+	 *
+	 * The constructor assigns an array of empty slots with a
+	 * default size. Used, which represents the number of filled
+	 * slots, and pairs, which represents the number of mappings,
+	 * are set to zero.
+	 */
+	public ConcurrentArrayMap() {
+		this.slots = new AtomicReferenceArray<>(DEFAULT_SIZE);
+		this.used = new AtomicInteger();
+		this.pairs = new AtomicInteger();
+		this.rebuildLock = new ReentrantReadWriteLock();
+	}
+
+	/**
+	 * The following function returns the value the passed in key maps to.
+	 *
+	 * The slots are probed without locking.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the value of the key, if N/A returns null
+	 */
+	@Override
+	public V get(Object key) {
+		Node<K, V> node = findNode(slots, key);
+		return node == null ? null : node.value();
+	}
+
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in key is in the map.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns true if the key is in the map.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	/**
+	 * The following function returns the number of mappings in the map.
+	 *
+	 * @return returns an int that represents the size(pairs) of the map.
+	 */
+	@Override
+	public int size() {
+		return pairs.get();
+	}
+
+	/**
+	 * The following function adds the passed in key and value to the map.
+	 *
+	 * An existing key has its value replaced with the passed in value.
+	 *
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 *
+	 * @throws NullPointerException if key or value is null.
+	 * @return returns existing key's previous value if N/A returns null
+	 */
+	@Override
+	public V put(K key, V value) {
+		return doPut(key, value, false);
+	}
+
+	/**
+	 * The following function adds the passed in key and value to the map if
+	 * the key is not in the map.
+	 *
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 *
+	 * @throws NullPointerException if key or value is null.
+	 * @return returns existing key's value if N/A returns null
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
+		return doPut(key, value, true);
+	}
+
+	/**
+	 * The following function removes the pair of the passed in key from the map.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the removed value of the key, if N/A returns null
+	 */
+	@Override
+	public V remove(Object key) {
+		return doRemove(key, null);
+	}
+
+	/**
+	 * The following function removes the pair of the passed in key from the map
+	 * if the key maps to the passed in value.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 * @param value is an Object the key is expected to map to.
+	 *
+	 * @return returns true if the pair was removed.
+	 */
+	@Override
+	public boolean remove(Object key, Object value) {
+		return value != null && doRemove(key, value) != null;
+	}
+
+	/**
+	 * The following function replaces the value of the passed in key if the
+	 * key maps to the passed in old value.
+	 *
+	 * @param key represents a key of type K
+	 * @param oldValue represents the value of type V the key is expected to map to.
+	 * @param newValue represents the new value of type V
+	 *
+	 * @throws NullPointerException if a param is null.
+	 * @return returns true if the value was replaced.
+	 */
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		Objects.requireNonNull(oldValue);
+		return doReplace(key, oldValue, newValue) != null;
+	}
+
+	/**
+	 * The following function replaces the value of the passed in key if the
+	 * key is in the map.
+	 *
+	 * @param key represents a key of type K
+	 * @param value represents the new value of type V
+	 *
+	 * @throws NullPointerException if key or value is null.
+	 * @return returns existing key's previous value if N/A returns null
+	 */
+	@Override
+	public V replace(K key, V value) {
+		return doReplace(key, null, value);
+	}
+
+	/**
+	 * The following function removes every pair from the map.
+	 *
+	 * The slots are swapped for an empty array while the writers
+	 * are locked out.
+	 */
+	@Override
+	public void clear() {
+		rebuildLock.writeLock().lock();
+		try {
+			this.slots = new AtomicReferenceArray<>(DEFAULT_SIZE);
+			used.set(0);
+			pairs.set(0);
+		} finally {
+			rebuildLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The following function returns a set of entry pairs.
+	 *
+	 * The following function returns a ConcurrentArrayMapEntrySet, which
+	 * is a live view of the pairs in the map. Its iterator is weakly consistent.
+	 *
+	 * @return returns a ConcurrentArrayMapEntrySet of key value pairs in the map.
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entryView == null) {
+			entryView = new ConcurrentArrayMapEntrySet();
+		}
+		return entryView;
+	}
+
+	/**
+	 * The following function adds or replaces the passed in key and value.
+	 *
+	 * The function reserves a slot in used before probing, so the slots can
+	 * never be filled past the load factor. If there is no room the slots are
+	 * rebuilt and the put is tried again. The probe runs from the key's hash
+	 * to the key's node or the first empty slot, which is claimed with a
+	 * compare and set. If another writer claims it first the slot is checked
+	 * again since it may be the same key.
+	 *
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 * @param onlyIfAbsent is a boolean that is true to keep an existing value.
+	 *
+	 * @return returns existing key's previous value if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	private V doPut(K key, V value, boolean onlyIfAbsent) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(value);
+		while (true) {
+			rebuildLock.readLock().lock();
+			try {
+				AtomicReferenceArray<Node<K, V>> slots = this.slots;
+				if (used.incrementAndGet() <= threshold(slots)) {
+					boolean claimed = false;
+					try {
+						int mask = slots.length() - 1;
+						for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+							Node<K, V> node = slots.get(slot);
+							if (node == null) {
+								if (slots.compareAndSet(slot, null, new Node<>(key, value))) {
+									claimed = true;
+									pairs.incrementAndGet();
+									return null;
+								}
+								node = slots.get(slot);
+							}
+							if (key.equals(node.key)) {
+								while (true) {
+									Object oldVal = node.value;
+									if (oldVal == REMOVED) {
+										if (node.casValue(REMOVED, value)) {
+											pairs.incrementAndGet();
+											return null;
+										}
+									} else if (onlyIfAbsent || node.casValue(oldVal, value)) {
+										return (V) oldVal;
+									}
+								}
+							}
+						}
+					} finally {
+						//give back the reserved slot if a node was not added
+						if (!claimed) {
+							used.decrementAndGet();
+						}
+					}
+				}
+				used.decrementAndGet();
+			} finally {
+				rebuildLock.readLock().unlock();
+			}
+			rebuild();
+		}
+	}
+
+	/**
+	 * The following function marks the node of the passed in key removed.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 * @param expected is the Object the key must map to, if null any value.
+	 *
+	 * @return returns the removed value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	private V doRemove(Object key, Object expected) {
+		Objects.requireNonNull(key);
+		rebuildLock.readLock().lock();
+		try {
+			Node<K, V> node = findNode(slots, key);
+			if (node == null) {
+				return null;
+			}
+			while (true) {
+				Object oldVal = node.value;
+				if (oldVal == REMOVED || (expected != null && !expected.equals(oldVal))) {
+					return null;
+				}
+				if (node.casValue(oldVal, REMOVED)) {
+					pairs.decrementAndGet();
+					return (V) oldVal;
+				}
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The following function replaces the value of the node of the passed in key.
+	 *
+	 * @param key represents a key of type K
+	 * @param expected is the value of type V the key must map to, if null any value.
+	 * @param value represents the new value of type V
+	 *
+	 * @return returns the replaced value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	private V doReplace(K key, V expected, V value) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(value);
+		rebuildLock.readLock().lock();
+		try {
+			Node<K, V> node = findNode(slots, key);
+			if (node == null) {
+				return null;
+			}
+			while (true) {
+				Object oldVal = node.value;
+				if (oldVal == REMOVED || (expected != null && !expected.equals(oldVal))) {
+					return null;
+				}
+				if (node.casValue(oldVal, value)) {
+					return (V) oldVal;
+				}
+			}
+		} finally {
+			rebuildLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * The following function rebuilds the slots from the nodes that are
+	 * not removed, while the writers are locked out.
+	 *
+	 * The new slots have room for twice the pairs, so a map that is mostly
+	 * removed markers is rebuilt at the same or a smaller length.
+	 */
+	private void rebuild() {
+		rebuildLock.writeLock().lock();
+		try {
+			AtomicReferenceArray<Node<K, V>> oldSlots = this.slots;
+			//another writer may have rebuilt already
+			if (used.get() < threshold(oldSlots)) {
+				return;
+			}
+			int length = tableSizeFor(Math.max(pairs.get() * 2, DEFAULT_SIZE));
+			AtomicReferenceArray<Node<K, V>> newSlots = new AtomicReferenceArray<>(length);
+			int mask = length - 1;
+			int count = 0;
+			for (int i = 0; i < oldSlots.length(); i++) {
+				Node<K, V> node = oldSlots.get(i);
+				if (node != null && node.value != REMOVED) {
+					int slot = hash(node.key) & mask;
+					while (newSlots.get(slot) != null) {
+						slot = (slot + 1) & mask;
+					}
+					newSlots.set(slot, node);
+					count++;
+				}
+			}
+			used.set(count);
+			this.slots = newSlots;
+		} finally {
+			rebuildLock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * The following function returns the node of the passed in key in the
+	 * passed in slots, which may be marked removed.
+	 *
+	 * @param slots is an array of slots to probe.
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the Node of the key, if N/A returns null
+	 */
+	private static <K, V> Node<K, V> findNode(AtomicReferenceArray<Node<K, V>> slots, Object key) {
+		if (key == null) {
+			return null;
+		}
+		int mask = slots.length() - 1;
+		for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+			Node<K, V> node = slots.get(slot);
+			if (node == null) {
+				return null;
+			}
+			if (key.equals(node.key)) {
+				return node;
+			}
+		}
+	}
+
+	/**
+	 * The following function returns the number of slots that can be
+	 * filled in the passed in slots under the load factor.
+	 *
+	 * @param slots is an array of slots.
+	 *
+	 * @return returns an int number of slots.
+	 */
+	private static int threshold(AtomicReferenceArray<?> slots) {
+		return (int) (slots.length() * LOAD_FACTOR);
+	}
+
+	/**
+	 * The following function spreads the high bits of the key's hash code
+	 * into the low bits used to pick a slot.
+	 *
+	 * @param key is an Object that is not null.
+	 *
+	 * @return returns an int hash for the key.
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * The following function returns the slots length needed to hold
+	 * the passed in capacity of pairs under the load factor.
+	 *
+	 * @param capacity is an int number of pairs.
+	 *
+	 * @return returns an int power of two.
+	 */
+	private static int tableSizeFor(int capacity) {
+		int needed = (int) Math.ceil(capacity / LOAD_FACTOR);
+		int length = 1;
+		while (length < needed) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	/**
+	 * The following class represents a key and value pair in a slot.
+	 *
+	 * The key never changes. The value is changed with a compare and set
+	 * and is REMOVED when the pair has been removed.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 * @param <K> generic type for keys
+	 * @param <V> generic type for values
+	 */
+	private static class Node<K, V> {
+
+		@SuppressWarnings("rawtypes")
+		private static final AtomicReferenceFieldUpdater<Node, Object> VALUE =
+				AtomicReferenceFieldUpdater.newUpdater(Node.class, Object.class, "value");
+		private final K key;
+		private volatile Object value;
+
+		/**
+		 * Constructor for Node.
+		 *
+		 * @param key represents a key of type K
+		 * @param value represents a value of type V
+		 */
+		public Node(K key, V value) {
+			this.key = key;
+			this.value = value;
+		}
+
+		/**
+		 * The following function returns the value of the node.
+		 *
+		 * @return returns the value of type V, if removed returns null
+		 */
+		@SuppressWarnings("unchecked")
+		public V value() {
+			Object val = value;
+			return val == REMOVED ? null : (V) val;
+		}
+
+		/**
+		 * The following function sets the value of the node to the passed in
+		 * update if it is still the passed in expected value.
+		 *
+		 * @param expected is the Object the value is expected to be.
+		 * @param update is the new Object for the value.
+		 *
+		 * @return returns true if the value was set.
+		 */
+		public boolean casValue(Object expected, Object update) {
+			return VALUE.compareAndSet(this, expected, update);
+		}
+	}
+
+	/**
+	 * The following class represents an entry set for the ConcurrentArrayMap.
+	 *
+	 * The set is a view of the map. The class extends AbstractSet and overrides
+	 * the methods size, contains, remove, clear and iterator.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ConcurrentArrayMapEntrySet extends AbstractSet<Entry<K, V>> {
+
+		/**
+		 * @return returns int that represents the size of the entrySet
+		 */
+		@Override
+		public int size() {
+			return ConcurrentArrayMap.this.size();
+		}
+
+		/**
+		 * The following function returns true if the passed in object is an
+		 * entry whose key maps to its value in the map.
+		 *
+		 * @param o is an Object that may exist in the entry set.
+		 *
+		 * @return returns a boolean based on if the object is in the entrySet
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Entry) {
+				Entry<?, ?> entry = (Entry<?, ?>) o;
+				V value = get(entry.getKey());
+				return value != null && value.equals(entry.getValue());
+			}
+			return false;
+		}
+
+		/**
+		 * The following function removes the passed in entry from the map if
+		 * its key still maps to its value.
+		 *
+		 * @param o is an Object that may exist in the entry set.
+		 *
+		 * @return returns true if the entry was removed.
+		 */
+		@Override
+		public boolean remove(Object o) {
+			if (o instanceof Entry) {
+				Entry<?, ?> entry = (Entry<?, ?>) o;
+				return entry.getKey() != null
+						&& ConcurrentArrayMap.this.remove(entry.getKey(), entry.getValue());
+			}
+			return false;
+		}
+
+		/**
+		 * The following function removes every pair from the map.
+		 */
+		@Override
+		public void clear() {
+			ConcurrentArrayMap.this.clear();
+		}
+
+		/**
+		 * @return returns a weakly consistent ConcurrentArrayMapIterator.
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new ConcurrentArrayMapIterator(slots);
+		}
+	}
+
+	/**
+	 * The following class represents a weakly consistent iterator over the
+	 * pairs of a ConcurrentArrayMap.
+	 *
+	 * The iterator walks the slots array the map had when the iterator was made
+	 * and skips empty slots and removed nodes. The next node is found ahead of
+	 * the call to next, so hasNext and next agree. Each entry holds the value
+	 * that was read, and setValue puts the new value in the map.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ConcurrentArrayMapIterator implements Iterator<Entry<K, V>> {
+
+		private final AtomicReferenceArray<Node<K, V>> slots;
+		private int index;
+		private Entry<K, V> next;
+		private Entry<K, V> last;
+
+		/**
+		 * Constructor for ConcurrentArrayMapIterator.
+		 *
+		 * @param slots is the array of slots to iterate over.
+		 */
+		public ConcurrentArrayMapIterator(AtomicReferenceArray<Node<K, V>> slots) {
+			this.slots = slots;
+			this.index = 0;
+			advance();
+		}
+
+		/**
+		 * The following function finds the next node that is not removed
+		 * and keeps an entry of it in next.
+		 */
+		private void advance() {
+			this.next = null;
+			while (next == null && index < slots.length()) {
+				Node<K, V> node = slots.get(index);
+				index++;
+				if (node != null) {
+					V value = node.value();
+					if (value != null) {
+						next = new ConcurrentArrayMapEntry(node.key, value);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return returns a boolean based on whether there is a next entry.
+		 */
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		/**
+		 * The following function returns the next entry.
+		 *
+		 * @throws NoSuchElementException if there is no next entry.
+		 * @return returns the next entry.
+		 */
+		@Override
+		public Entry<K, V> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			this.last = next;
+			advance();
+			return last;
+		}
+
+		/**
+		 * The following function removes the key of the last entry returned
+		 * by next from the map.
+		 *
+		 * @throws IllegalStateException if the next method has not yet been called, or the remove
+		 * method has already been called after the last call to the next method.
+		 */
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			ConcurrentArrayMap.this.remove(last.getKey());
+			this.last = null;
+		}
+	}
+
+	/**
+	 * The following class represents an entry returned by the iterator.
+	 *
+	 * The entry extends SimpleEntry, but setValue also puts the value in the map.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class ConcurrentArrayMapEntry extends SimpleEntry<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Constructor for ConcurrentArrayMapEntry.
+		 *
+		 * @param key represents a key of type K
+		 * @param value represents a value of type V
+		 */
+		public ConcurrentArrayMapEntry(K key, V value) {
+			super(key, value);
+		}
+
+		/**
+		 * The following function sets the value of the entry and puts it in the map.
+		 *
+		 * @param value represents the new value of type V
+		 *
+		 * @return returns the previous value of the entry.
+		 */
+		@Override
+		public V setValue(V value) {
+			Objects.requireNonNull(value);
+			put(getKey(), value);
+			return super.setValue(value);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class ConcurrentArrayMap.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see ConcurrentArrayMap
+ */
+public class ConcurrentArrayMapTests {
+
+    /**
+     * Tests ConcurrentArrayMap Methods on one thread.
+     */
+	@Test
+	void testConcurrentArrayMap() {
+		ConcurrentArrayMap<String, Integer> map = new ConcurrentArrayMap<>();
+
+		//test put past several rebuilds
+		for (int i = 0; i < 100; i++) {
+			assertNull(map.put("Test" + i, i));
+		}
+		assertEquals(map.put("Test0", -1), 0);
+		assertEquals(map.size(), 100);
+		assertEquals(map.get("Test99"), 99);
+		assertNull(map.get("N/A"));
+
+		//test the ConcurrentMap methods
+		assertEquals(map.putIfAbsent("Test1", 5), 1);
+		assertTrue(map.replace("Test1", 1, 10));
+		assertFalse(map.replace("Test1", 1, 20));
+		assertFalse(map.remove("Test1", 1));
+		assertTrue(map.remove("Test1", 10));
+		assertNull(map.get("Test1"));
+		//a removed key can be added again
+		assertNull(map.putIfAbsent("Test1", 1));
+		assertEquals(map.merge("Test1", 1, Integer::sum), 2);
+
+		//test nulls are not allowed
+		assertThrows(NullPointerException.class, ()->{ map.put(null, 1);});
+		assertThrows(NullPointerException.class, ()->{ map.put("Test1", null);});
+
+		//test iterator remove
+		Iterator<Entry<String, Integer>> iter = map.entrySet().iterator();
+		while (iter.hasNext()) {
+			iter.next();
+			iter.remove();
+		}
+		assertEquals(map.size(), 0);
+		assertTrue(map.isEmpty());
+		assertThrows(IllegalStateException.class, ()->{ iter.remove();});
+	}
+
+    /**
+     * Tests that counts kept by several threads are not lost.
+     */
+	@Test
+	void testThreads() throws InterruptedException {
+		ConcurrentArrayMap<Integer, Integer> map = new ConcurrentArrayMap<>();
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 10000; i++) {
+					map.merge(i % 500, 1, Integer::sum);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertEquals(map.size(), 500);
+		for (int i = 0; i < 500; i++) {
+			assertEquals(map.get(i), 80);
+		}
+	}
+}
@@ -1,3 +1,6 @@
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import javafx.application.Application;
 /** 
 * Author: Fernando Ruiz
@@ -5,9 +8,15 @@ import javafx.application.Application;
 * ASSIGNMENT: Programming Assignment 4 - Cryptograms
 * COURSE: CSc 335; Fall 2020;
 * PURPOSE: The following  program is the main class for the game Cryptograms.
-* When invoked with a command line argument of "-text", it will launch the text-oriented UI.
+* When invoked with a command line argument of "-text", it will launch the text-oriented UI,
+* which runs without starting JavaFX.
 * When invoked with a command line argument 0f "-window" it will launch the GUI view. 
-* The default will be the GUI view.
+* The default will be the GUI view. After the view argument "-corpus <file>" chooses
+* quotes from another file, and "-stream" samples each quote in one pass over the file
+* instead of indexing it, for a corpus too big to index. With "-text", "-ansi" keeps
+* the display in place on the terminal and only redraws the letters that change, and
+* "-batch [file]" plays a script of commands, with "-checkpoint N" to show the display
+* every N commands.
 * 
 * @author Fernando Ruiz
 * @see CryptogramTextView
@@ -16,10 +25,12 @@ import javafx.application.Application;
 public class Cryptogram {
 
 	public static void main(String[] args) {
+		useCorpusArgs(args);
 		if(args.length != 0) {
 			//command line argument
 			if(args[0].equals("-text")) {
-				Application.launch(CryptogramTextView.class, args);
+				//the text interface is a plain console program, JavaFX is never loaded
+				CryptogramTextView.main(args);
 			} else if (args[0].equals("-window")){
 				Application.launch(CryptogramGUIView.class, args);
 			}else {
@@ -31,6 +42,25 @@ public class Cryptogram {
 			Application.launch(CryptogramGUIView.class, args);
 		}
 	}
+	
+	/**
+	 * The following function sets the corpus of CryptogramModel from the 
+	 * arguments "-corpus <file>" and "-stream", if they are passed in.
+	 * 
+	 * @param args is a String array of the command line arguments.
+	 */
+	private static void useCorpusArgs(String[] args) {
+		Path corpus = Paths.get("quotes.txt");
+		boolean stream = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-corpus") && i + 1 < args.length) {
+				corpus = Paths.get(args[++i]);
+			} else if (args[i].equals("-stream")) {
+				stream = true;
+			}
+		}
+		CryptogramModel.useCorpus(corpus, stream ? QuoteStore.LineFilter.any() : null);
+	}
 
 }
  
\ No newline at end of file
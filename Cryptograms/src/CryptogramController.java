@@ -1,4 +1,6 @@
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -18,13 +20,40 @@ import java.util.List;
 
 public class CryptogramController {
 	
+	private static final int TEXT_WIDTH = 80;
+	private static final int GUI_WIDTH = 30;
+	private static final String COMMANDS =
+			"|---------------------------------------------------------------------------|\n" +
+			"|Commands:        Description:                                              |\n" +
+			"|---------------------------------------------------------------------------|\n" +
+			"|replace X by Y  replace letter X by letter Y in our attempted solution.   |\n" +
+			"|X = Y           replace letter X by letter Y in our attempted solution.   |\n" +
+			"|freq            Display the letter frequencies in the encrypted quotation.|\n" +
+			"|hint            display one correct mapping that has not yet been guessed.|\n" +
+			"|exit            Ends the game early.                                      |\n" +
+			"|---------------------------------------------------------------------------|";
 	private CryptogramModel cryptogram;
+	private final ArrayMap<Integer, LineLayout> layouts = new ArrayMap<>();
 	
 	/**
 	 * Default constructor.
+	 * 
+	 * The game is made on the calling thread, so no PuzzlePool is
+	 * started. The text interface and batch scripts use it, since
+	 * they play one game and exit.
 	 */
 	public CryptogramController() {
-		this.cryptogram = new CryptogramModel();
+		this(new CryptogramModel());
+	}
+	
+	/**
+	 * The overloaded constructor takes its game from the 
+	 * passed in PuzzlePool, which has puzzles made ahead of time.
+	 * 
+	 * @param pool is a PuzzlePool of ready CryptogramModels.
+	 */
+	public CryptogramController(PuzzlePool pool) {
+		this.cryptogram = pool.take();
 	}
 	
 	/**
@@ -41,22 +70,15 @@ public class CryptogramController {
      * The following method returns a boolean which is determined by the
      * CryptogramModel game status. 
      * 
-     * It calls getDecryptedString(); to
-     * get the user's decryption progress in a string and compares
-     * (.equals) it to the answer/quote (returned by getAnswer();)
-     * of the pre-encrypted string to check
-     * if the user has completed the game.
+     * It calls isSolved(); which compares the model's count of
+     * correctly mapped letters to the number of letters in the
+     * quote, so no strings are compared.
      * 
      * @return is a boolean that represents if the game is over.
      * @see CryptogramModel
      */
 	public boolean isGameOver() {
-		String ans = cryptogram.getAnswer();
-		String userDecryptStr = cryptogram.getDecryptedString();
-		if(ans.equals(userDecryptStr)) {
-			return true;
-		}
-		return false;
+		return cryptogram.isSolved();
 	}
 	
     /**
@@ -84,71 +106,119 @@ public class CryptogramController {
 	}
 	
     /**
-     * The following method calls the function wordWrap() with the
-     * CryptogramsModel function getEncryptedString(); to return a string
-     * that represents the quote/answer encrypted.
+     * The following method returns a string that represents the quote/answer
+     * encrypted, wrapped at 80 characters.
      * 
-     * wordWrap add newlines to the str to wrap at 80 characters.
-     * All letters of the str are capitalized.
+     * The lines are found by the cached LineLayout of the quote and are
+     * separated by newlines. All letters of the str are capitalized.
      * 
      * @return is a String that represents that encrypted string quote.
      * @see CryptogramModel
+     * @see LineLayout
      */
 	public String getEncryptedQuote() {
-		return wordWrap(cryptogram.getEncryptedString(), "N/A",80);
+		return joinLines(cryptogram.getEncryptedString(), TEXT_WIDTH, false);
 	}
 	
 
     /**
-     * The following method calls the function wordWrap() with the 
-     * CryptogramsModel function getDecryptedString(); to return a string
-     * that represents the user's decryption progress.
+     * The following method returns a string that represents the user's
+     * decryption progress, wrapped at 80 characters.
      * 
-     * wordWrap add newlines to the str to wrap at 80 characters.
-     * All letters of the str are capitalized.
+     * The lines are found by the cached LineLayout of the quote and are
+     * separated by newlines. Unknown mappings are shown as whitespace.
      * 
      * @return is a String the represents the user's decryption progress.
      * @see CryptogramModel
+     * @see LineLayout
      */
 	public String getUsersProgress() {
-		return wordWrap(cryptogram.getDecryptedString(), "replace",80);
+		return joinLines(cryptogram.getDecryptedChars(), TEXT_WIDTH, true);
 	}
 	
 	
     /**
-     * The following method calls takes in a string and adds new lines
-     * in respect to word boundaries. 
+     * The following method returns the LineLayout that printCryptogram() and
+     * writeCryptogram() wrap the quote with, so a view can find the line and
+     * column of a position in the quote.
      * 
-     * A newline is added at >= to 80 characters or when a word exceeds it.
-     * The function use a loop and counters to determine when to add a newline, 
-     * the function is used by getEncryptedQuote and getUsersProgress.If the command
-     * replace is passed in then the string is a decryption and needs its unknown mappings
-     * to be replaced with whitespace.
+     * @return is the LineLayout of the quote at 80 characters.
+     * @see LineLayout
+     */
+	public LineLayout getTextLayout() {
+		return layout(TEXT_WIDTH);
+	}
+	
+    /**
+     * The following method adds a listener that is sent a ReplacementEvent
+     * every time the user's decryption changes.
      * 
-     * @return is a String that has been wrapped if >= to 80.
+     * @param listener is a ModelListener to add.
+     * @see CryptogramModel
      */
-	private String wordWrap(String cryption, String command, int wrap) {
-		String cryptStr = cryption;
-		int lineSize = 0;
-		String str = "";
-		String[] cryptArr = cryptStr.split(" ");
-		for(int i = 0; i < cryptArr.length; i++) {
-			String word = cryptArr[i];
-			int size = word.length()+1;
-			if((lineSize+size)>=wrap) {
-				str += "split";
-				lineSize = 0;
-				str += word+" ";
-			}else {
-				str += word+" ";
+	public void addListener(ModelListener listener) {
+		cryptogram.addListener(listener);
+	}
+	
+    /**
+     * The following method returns the LineLayout of the quote wrapped at
+     * the passed in width.
+     * 
+     * The encrypted quote, the user's decryption and the answer have their
+     * spaces in the same places, so the layout is made once per width and
+     * used for all of them, and a replacement doesn't change it.
+     * 
+     * @param width is the int width to wrap at.
+     * 
+     * @return is the LineLayout of the quote.
+     */
+	private LineLayout layout(int width) {
+		return layouts.computeIfAbsent(width, w -> LineLayout.of(cryptogram.getEncryptedString(), w));
+	}
+	
+    /**
+     * The following method returns the lines of the passed in text separated
+     * by newlines. If blank is true, the unknown mappings ('?') are replaced with
+     * whitespace.
+     * 
+     * @param text is a CharSequence with the same spaces as the quote.
+     * @param width is the int width to wrap at.
+     * @param blank is a boolean, if true '?' is replaced with whitespace.
+     * 
+     * @return is a String of the wrapped text.
+     */
+	private String joinLines(CharSequence text, int width, boolean blank) {
+		LineLayout layout = layout(width);
+		StringBuilder str = new StringBuilder(text.length() + layout.lineCount() * 2);
+		try {
+			for(int i = 0; i < layout.lineCount(); i++) {
+				if(i > 0) {
+					str.append('\n');
+				}
+				if(blank) {
+					layout.writeLine(str, text, i, '?', ' ');
+				} else {
+					layout.writeLine(str, text, i);
+				}
 			}
-			lineSize +=size;
-		}
-		
-		if(command.equals("replace")) {
-			str = str.replace('?', ' ');
+		} catch (IOException e) {
+			//a StringBuilder doesn't throw
+			throw new UncheckedIOException(e);
 		}
-		return str;
+		return str.toString();
+	}
+	
+    /**
+     * The following method returns the letter the user replaced the
+     * passed in encrypted letter with.
+     * 
+     * @param encryptedChar is a char that may be a letter of the alphabet.
+     * 
+     * @return is the capitalized replacement, if N/A returns NONE
+     * @see CryptogramModel
+     */
+	public char getReplacement(char encryptedChar) {
+		return cryptogram.getReplacement(encryptedChar);
 	}
 	
     /**
@@ -175,27 +245,73 @@ public class CryptogramController {
 		return cryptogram.getFrequency();
 	}
 	
+    /**
+     * The following method writes the frequency of letters in the
+     * encryptStr to the passed in Appendable, in the same format as getFreq().
+     * The Appendable is not flushed.
+     * 
+     * @param out is an Appendable to write to.
+     * 
+     * @throws IOException if out throws.
+     * @see CryptogramModel
+     */
+	public void writeFreq(Appendable out) throws IOException {
+		out.append(cryptogram.getFrequency());
+	}
+	
+    /**
+     * The following method returns the number of times every letter is
+     * in the encryption string, from the CryptogramModel function 
+     * getLetterCounts();.
+     * 
+     * @return is an int array of 26 counts, index 0 is the count of 'A'.
+     * @see CryptogramModel
+     */
+	public int[] getLetterCounts(){
+		return cryptogram.getLetterCounts();
+	}
+	
     /**
      * The following function returns a string that represents the Cryptogram display 
      * with the decryption string on top of the encryption string separated with a newline
      * if exceeding more >= 80 characters.
      * 
      * @return cryptogram is a String that represents the Cryptogram.
-     * 
+     * @see #writeCryptogram(Appendable)
      */
 	public String printCryptogram() {
-		String progress = getUsersProgress();
-		String quote = getEncryptedQuote();
-		String[] progressArr = progress.split("split");
-		String[] quoteArr = quote.split("split");
-		int i = 0;
-		String cryptogram = "";
-		for(String str: progressArr) {
-			cryptogram += str + "\n";
-			cryptogram += quoteArr[i] + "\n";
-			i++;
+		StringBuilder str = new StringBuilder(cryptogram.getEncryptedString().length() * 2 + 8);
+		try {
+			writeCryptogram(str);
+		} catch (IOException e) {
+			//a StringBuilder doesn't throw
+			throw new UncheckedIOException(e);
+		}
+		return str.toString();
+	}
+	
+    /**
+     * The following function writes the Cryptogram display to the passed in
+     * Appendable, in the same format as printCryptogram().
+     * 
+     * The lines are written a char at a time from the model's buffers, so no
+     * string is made. The Appendable is not flushed, the caller flushes it
+     * when the display should be shown, such as before waiting for input.
+     * 
+     * @param out is an Appendable to write to, such as a Writer.
+     * 
+     * @throws IOException if out throws.
+     */
+	public void writeCryptogram(Appendable out) throws IOException {
+		LineLayout layout = layout(TEXT_WIDTH);
+		CharSequence progress = cryptogram.getDecryptedChars();
+		String quote = cryptogram.getEncryptedString();
+		for(int i = 0; i < layout.lineCount(); i++) {
+			layout.writeLine(out, progress, i, '?', ' ');
+			out.append('\n');
+			layout.writeLine(out, quote, i);
+			out.append('\n');
 		}
-		return cryptogram;
 	}
 	
     /**
@@ -228,22 +344,24 @@ public class CryptogramController {
 	
     /**
      * The following method returns a string that displays a list of commands
-     * for the command "help".
+     * for the command "help". The string is a constant, so it is only made once.
      * 
-     * @return str is a string that displays the commands.
+     * @return is a string that displays the commands.
      */
 	public String printCommands() {
-		String str = "";
-		str += ("|---------------------------------------------------------------------------|\n");
-		str += ("|Commands:        Description:                                              |\n");
-		str += ("|---------------------------------------------------------------------------|\n");
-		str += ("|replace X by Y  replace letter X by letter Y in our attempted solution.   |\n");
-		str += ("|X = Y           replace letter X by letter Y in our attempted solution.   |\n");
-		str += ("|freq            Display the letter frequencies in the encrypted quotation.|\n");
-		str += ("|hint            display one correct mapping that has not yet been guessed.|\n");
-		str += ("|exit            Ends the game early.                                      |\n");
-		str += ("|---------------------------------------------------------------------------|");
-		return str;
+		return COMMANDS;
+	}
+	
+    /**
+     * The following method writes the list of commands for the command
+     * "help" to the passed in Appendable. The Appendable is not flushed.
+     * 
+     * @param out is an Appendable to write to.
+     * 
+     * @throws IOException if out throws.
+     */
+	public void writeCommands(Appendable out) throws IOException {
+		out.append(COMMANDS);
 	}
 	
 	
@@ -257,19 +375,19 @@ public class CryptogramController {
      * @return guiArr is a 2D string array of a particular string from the model.
      */
 	public String[][] guiStr(String command) {
-		String str = null;
+		CharSequence str = null;
 		if(command.equals("encrypt")) {
-			str = wordWrap(cryptogram.getEncryptedString(), "N/A",30);
+			str = cryptogram.getEncryptedString();
 		} else if(command.equals("decrypt")) {
-			str = wordWrap(cryptogram.getDecryptedString(), "N/A",30);
+			str = cryptogram.getDecryptedChars();
 		}else if(command.equals("answer")) {
-			str = wordWrap(cryptogram.getAnswer(), "N/A",30);
+			str = cryptogram.getAnswer();
 		}
 		
-        String[] arr = str.split("split");
-        String[][] guiArr = new String[arr.length][1];
-        for(int i = 0; i < arr.length;i++) {
-        	guiArr[i][0] = arr[i];
+		LineLayout layout = layout(GUI_WIDTH);
+        String[][] guiArr = new String[layout.lineCount()][1];
+        for(int i = 0; i < guiArr.length;i++) {
+        	guiArr[i][0] = layout.line(str, i);
         }
 
 		return guiArr;
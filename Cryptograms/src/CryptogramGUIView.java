@@ -17,8 +17,8 @@
 * @see CryptogramController
 * @see CryptogramModel
 */
-import java.util.Observable;
-import java.util.Observer;
+import java.util.ArrayList;
+import java.util.List;
 import javafx.application.Application;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -35,10 +35,11 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 
-public class CryptogramGUIView extends Application implements Observer {
+public class CryptogramGUIView extends Application implements ModelListener {
 	
-	private CryptogramModel model = new CryptogramModel();
+	private CryptogramModel model = PuzzlePool.shared().take();
 	private CryptogramController game = new CryptogramController(model);
+	private List<List<TextField>> letterFields = new ArrayList<>();
 	public static final BorderPane window = new BorderPane();
 
 	public static void main(String[] args) {
@@ -53,7 +54,7 @@ public class CryptogramGUIView extends Application implements Observer {
 	 */
 	@Override
 	public void start(Stage stage){ 
-		model.addObserver(this); 
+		model.addListener(this); 
 		stage.setTitle("Cryptograms");
 		Scene scene = new Scene(window, 900, 400);
         GridPane cryptogram = getCryptogram(false);
@@ -104,15 +105,16 @@ public class CryptogramGUIView extends Application implements Observer {
 	 * game to new class instances. 
 	 * 
 	 * The following function creates a new puzzle by setting the 
-	 * global CyrptogramModel model to a new instance and passing it
+	 * global CyrptogramModel model to a new instance, taken from the shared 
+	 * PuzzlePool so it is made before the click, and passing it
 	 * to a new instance of a CryptogramController to be controlled
-	 * in this view class. The new model instance is added as an observer 
+	 * in this view class. The new model instance is added as a listener 
 	 * and the GUI Cryptogram and tool section are reset.
 	 */
 	public void newPuzzle() {
-    	model = new CryptogramModel();
+    	model = PuzzlePool.shared().take();
     	game = new CryptogramController(model);
-    	model.addObserver(this); 
+    	model.addListener(this); 
         GridPane newCryptogram = getCryptogram(false);
     	GridPane newToolPane = toolPane();
         window.setCenter(newCryptogram);
@@ -141,14 +143,14 @@ public class CryptogramGUIView extends Application implements Observer {
 	 * 
 	 * The following function creates a GridPane object with the frequency of the
 	 * encryption letters set as labels in VBoxes. The letter are put into two columns
-	 * with the letters going in descending order.
+	 * with the letters going in descending order. The counts are read from the
+	 * model's letter histogram, so no string is parsed.
 	 * 
 	 * @returns a GridPane object that has the letter frequencies as labels in VBoxes. 
 	 */
 	public GridPane makeFreq() {
 		GridPane freqPane = new GridPane();
-        String[] freq = game.getFreq().replaceAll("\\n", "")
-        		.replaceAll(":", "").split(" ");
+        int[] freq = game.getLetterCounts();
         int count = 0;
         for(int i = 0; i < 2; i++) {
         	for(int j = 0; j < 13; j++) {
@@ -157,10 +159,10 @@ public class CryptogramGUIView extends Application implements Observer {
         		if (i == 0) {
         			offSet += "     ";
         		}
-        		Label label = new Label(freq[count] +"  "+ freq[count+1] + offSet);
+        		Label label = new Label((char) ('A' + count) +"  "+ freq[count] + offSet);
 	        	vbox.getChildren().add(label);
 	        	freqPane.add(vbox,i,j);
-            	count += 2;
+            	count++;
         	}
         }
         return freqPane;
@@ -176,13 +178,18 @@ public class CryptogramGUIView extends Application implements Observer {
 	 * When a textfield is keyPressed the a replacement is performed using the 
 	 * CryptogramController to add or alter  a decryption mapping to the model. If
 	 * the parameter status is set to True the game is over and all the textfields are
-	 * set to disabled. 
+	 * set to disabled. The textfields of each encrypted letter are kept in letterFields
+	 * so a change to a letter only sets the text of its textfields.
 	 * 
 	 * @param status is a boolean that represents the status of the game.
 	 * @return GridPane which represents the GUI cryptogram board.
 	 */
 	public GridPane getCryptogram(boolean status) { 
         GridPane gridPane  = new GridPane();
+        letterFields = new ArrayList<>();
+        for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+        	letterFields.add(new ArrayList<>());
+        }
         String[][] encrypt = game.guiStr("encrypt");
         String[][] decrypt = game.guiStr("decrypt");
         for(int i = 0; i < encrypt.length; i++) {
@@ -203,6 +210,10 @@ public class CryptogramGUIView extends Application implements Observer {
 	        	if(count < line.length) {
 	        		if(Character.isLetter(line[j].charAt(0))){
 	        			label = new Label(line[j]);
+	        			int letter = CipherMap.indexOf(line[j].charAt(0));
+	        			if (letter >= 0) {
+	        				letterFields.get(letter).add(text);
+	        			}
 	        			//sets textfield to users decryption guess
 	        			if (!line2[j].equals("?")){
 	        				text.setText(line2[j]);
@@ -258,6 +269,12 @@ public class CryptogramGUIView extends Application implements Observer {
 			char replacementLetter = text.getText().charAt(0);
 			char letterToReplace  = ((Labeled) vbox.getChildren().get(1)).getText().charAt(0);
     		game.makeReplacement(letterToReplace, replacementLetter);
+    		//a replacement that changes nothing sends no event, so the field
+    		//is set to the model's capitalized letter here
+    		char value = game.getReplacement(letterToReplace);
+    		if(value != CipherMap.NONE && !text.getText().equals(String.valueOf(value))) {
+    			text.setText(String.valueOf(value));
+    		}
 		}
 	}
 	
@@ -265,18 +282,22 @@ public class CryptogramGUIView extends Application implements Observer {
 	 * The following function updates the view when the model is changed.
 	 * 
 	 * The following function updates the view when the model is changed.
-	 * Every time a change is made the function .isGameOver() checks the status of the game.
-	 * If the game is over true is passed to the getCryptogram function to disable the text fields
-	 * and prompt the user that they have won with an Alert. If the user has not completed the game
-	 * then the getCryptogram is still called but with false to reset the view and display the new mapping
-	 * that was the product of the change to the model.
+	 * Every time a change is made the model sends a ReplacementEvent of the encrypted
+	 * letters that changed, and only the textfields of those letters have their text set.
+	 * If the event says the game is solved true is passed to the getCryptogram function 
+	 * to disable the text fields and prompt the user that they have won with an Alert.
 	 * 
-	 * @param arg0 is a Observable object.
-	 * @param arg1 is a object. 
+	 * @param event is a ReplacementEvent of the change. 
 	 */
 	@Override
-	public void update(Observable arg0, Object arg1) {
-		if(game.isGameOver()) {
+	public void modelChanged(ReplacementEvent event) {
+		for(int i = 0; i < event.size(); i++) {
+			String value = String.valueOf(event.getNewValue(i));
+			for(TextField text : letterFields.get(event.getLetter(i) - 'A')) {
+				text.setText(value);
+			}
+		}
+		if(event.isSolved()) {
 			//disable text fields by sending true
 	        GridPane cryptogram = getCryptogram(true);
 	        window.setCenter(cryptogram);
@@ -286,10 +307,6 @@ public class CryptogramGUIView extends Application implements Observer {
 			a.setContentText("You won!");
 			a.setHeaderText("Message");
 			a.showAndWait();
-		} else {
-			//update because new mapping was added
-	        GridPane cryptogram = getCryptogram(false);
-	        window.setCenter(cryptogram);
 		}
 	}
 }
\ No newline at end of file
@@ -16,53 +16,245 @@
 * 
 */
 
-import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Observable;
-import java.util.Scanner;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class CryptogramModel extends Observable {
+public class CryptogramModel {
+
+	/**
+	 * The following enum represents the order hints are given in. QUOTE_ORDER
+	 * gives the unsolved encrypted letter that is first in the quote, ALPHABETICAL
+	 * gives the unsolved encrypted letter first in the alphabet, MOST_FREQUENT
+	 * gives the unsolved encrypted letter that is in the quote the most.
+	 */
+	public enum HintPolicy { QUOTE_ORDER, ALPHABETICAL, MOST_FREQUENT }
+
+	private static Path corpus = Paths.get("quotes.txt");
+	private static QuoteStore.LineFilter streamFilter;
+	private static QuoteStore quotes;
 
 	private String answer;
-	private ArrayMap<String, String> userMap;
-	private ArrayMap<String, String> encryptMap;
+	private CipherMap userMap;
+	private CipherMap encryptMap;
+	private long keySeed;
+	private CipherEngine engine;
+	private char[] solution;
+	private int unsolved;
+	private int distinctLetters;
+	private int solvedLetters;
+	private HintPolicy hintPolicy = HintPolicy.QUOTE_ORDER;
+	private final List<ModelListener> listeners = new CopyOnWriteArrayList<>();
+	private int pendingLetters;
+	private final char[] pendingOld = new char[CipherMap.ALPHABET_SIZE];
 	private String encryptStr;
 	private String decryptStr;
+	private char[] decryptBuf;
+	private int[] letterCounts;
+	private char[] lettersByFreq;
+	private int[] lettersByPosition;
+	private int[] letterStarts;
+	private int[] letterPositions;
 	private String encryptFreq;
 	
 	/**
 	 * Default constructor.
+	 * 
+	 * The quote is chosen from the corpus and the key is made from a random seed.
 	 */
 	public CryptogramModel() {
-		this.answer     = chooseQuote();
-		this.userMap    = new ArrayMap<>();
+		this(chooseQuote(), ThreadLocalRandom.current().nextLong());
+	}
+	
+	/**
+	 * The overloaded constructor makes the game of the passed in quote and
+	 * key seed, so a game can be made again from its quote and getKeySeed();.
+	 * 
+	 * @param quote is a String quote to decrypt, it is capitalized.
+	 * @param keySeed is a long seed of the encryption key.
+	 */
+	public CryptogramModel(String quote, long keySeed) {
+		this.answer     = quote.toUpperCase();
+		this.keySeed    = keySeed;
+		this.userMap    = new CipherMap();
 		this.encryptMap = createEncryptMap();
+		this.engine     = new CipherEngine(encryptMap);
 		this.encryptStr = makeEncryptStr();
-		this.decryptStr = makeDecryptStr();
-		this.encryptFreq = createFreq();
+		indexPositions();
+		this.decryptBuf = makeDecryptBuf();
+		this.solution   = makeSolution();
+		this.unsolved   = makeUnsolved();
+		this.distinctLetters = Integer.bitCount(makePresent());
+		this.lettersByPosition = makeLettersByPosition();
+		this.solvedLetters   = distinctLetters - Integer.bitCount(unsolved);
 	}
 	
 	/**
 	 * The following func. checks that the params are alphabetic. 
 	 * 
 	 * If so the func. adds the encrypted char as the key and the replacement char as the value. 
-	 * If the key exists the value is replaced, if not it is added. 
+	 * If the key exists the value is replaced, if not it is added. Listeners are sent a 
+	 * ReplacementEvent of the change, if anything changed.
 	 * 
 	 * @param encryptedChar the encrypted char that represents the char to replace.
 	 * @param replacementChar the char to replace the encryptedChar with.
 	 */
 	public void setReplacement(char encryptedChar, char replacementChar) {
-		boolean checkChar1 = Character.isAlphabetic(encryptedChar);
-		boolean checkChar2 = Character.isAlphabetic(replacementChar);
-		if(checkChar1 && checkChar2) {
-			this.userMap.put((encryptedChar+"").toUpperCase(), (replacementChar+"").toUpperCase());
+		replace(encryptedChar, replacementChar);
+		fireChanges();
+	}
+	
+	/**
+	 * The following func. makes every passed in replacement, in order, and sends
+	 * listeners one ReplacementEvent of all of them.
+	 * 
+	 * Replacements of chars that are not alphabetic are skipped. A letter that is
+	 * replaced more than once is in the event once, from its value before the first
+	 * replacement to its value after the last.
+	 * 
+	 * @param encryptedChars a char array of the encrypted chars to replace.
+	 * @param replacementChars a char array of the chars to replace them with.
+	 * 
+	 * @throws IllegalArgumentException if the arrays are not the same length.
+	 */
+	public void setReplacements(char[] encryptedChars, char[] replacementChars) {
+		if (encryptedChars.length != replacementChars.length) {
+			throw new IllegalArgumentException("Replacements are not the same length: " 
+					+ encryptedChars.length + " " + replacementChars.length);
+		}
+		for(int i = 0; i < encryptedChars.length; i++) {
+			replace(encryptedChars[i], replacementChars[i]);
 		}
-		decryptStr = makeDecryptStr();
-		setChanged();
-		notifyObservers();
+		fireChanges();
+	}
+	
+	/**
+	 * The following func. maps the encrypted char to the replacement char if both 
+	 * are alphabetic, and keeps the letter's value before the change for the next event.
+	 * 
+	 * Only the positions of the encrypted char in the decryption buffer are written, so 
+	 * the cost is the number of times the letter is in the quote, not the length of the 
+	 * quote. The count of solved letters is changed if the letter became solved or unsolved.
+	 * 
+	 * @param encryptedChar the encrypted char that represents the char to replace.
+	 * @param replacementChar the char to replace the encryptedChar with.
+	 */
+	private void replace(char encryptedChar, char replacementChar) {
+		int letter = CipherMap.indexOf(encryptedChar);
+		boolean checkChar2 = CipherMap.indexOf(replacementChar) >= 0;
+		if(letter >= 0 && checkChar2) {
+			char oldVal = this.userMap.put(encryptedChar, replacementChar);
+			if ((pendingLetters & (1 << letter)) == 0) {
+				this.pendingLetters |= 1 << letter;
+				pendingOld[letter] = oldVal;
+			}
+			char value = userMap.get(encryptedChar);
+			for(int i = letterStarts[letter]; i < letterStarts[letter + 1]; i++) {
+				decryptBuf[letterPositions[i]] = value;
+			}
+			if (letterCounts[letter] > 0) {
+				int bit = 1 << letter;
+				boolean wasSolved = (unsolved & bit) == 0;
+				if (value == solution[letter]) {
+					this.unsolved &= ~bit;
+				} else {
+					this.unsolved |= bit;
+				}
+				boolean nowSolved = (unsolved & bit) == 0;
+				if (wasSolved != nowSolved) {
+					this.solvedLetters += nowSolved ? 1 : -1;
+				}
+			}
+			//the string is made again when it is next read
+			this.decryptStr = null;
+		}
+	}
+	
+	/**
+	 * The following func. sends listeners a ReplacementEvent of the letters whose
+	 * value changed since the last event.
+	 * 
+	 * The event has the letters in alphabetical order with their old and new values
+	 * and positions in the quote. No event is sent if no value changed.
+	 */
+	private void fireChanges() {
+		int changed = 0;
+		for(int bits = pendingLetters; bits != 0; bits &= bits - 1) {
+			int letter = Integer.numberOfTrailingZeros(bits);
+			if (pendingOld[letter] != userMap.get((char) ('A' + letter))) {
+				changed |= 1 << letter;
+			}
+		}
+		this.pendingLetters = 0;
+		if (changed == 0) {
+			return;
+		}
+		int size = Integer.bitCount(changed);
+		char[] letters = new char[size];
+		char[] oldValues = new char[size];
+		char[] newValues = new char[size];
+		int[] starts = new int[size + 1];
+		int n = 0;
+		for(int bits = changed; bits != 0; bits &= bits - 1) {
+			int letter = Integer.numberOfTrailingZeros(bits);
+			letters[n] = (char) ('A' + letter);
+			oldValues[n] = pendingOld[letter];
+			newValues[n] = userMap.get(letters[n]);
+			starts[n + 1] = starts[n] + letterCounts[letter];
+			n++;
+		}
+		int[] positions = new int[starts[size]];
+		for(int i = 0; i < size; i++) {
+			int letter = letters[i] - 'A';
+			System.arraycopy(letterPositions, letterStarts[letter], positions, starts[i], letterCounts[letter]);
+		}
+		ReplacementEvent event = new ReplacementEvent(this, letters, oldValues, newValues, 
+				starts, positions, isSolved());
+		for(ModelListener listener : listeners) {
+			listener.modelChanged(event);
+		}
+	}
+	
+	/**
+	 * The following function adds a listener that is sent a ReplacementEvent
+	 * after every change to the user's decryption.
+	 * 
+	 * Events are sent on the thread that made the change.
+	 * 
+	 * @param listener is a ModelListener.
+	 */
+	public void addListener(ModelListener listener) {
+		listeners.add(Objects.requireNonNull(listener));
+	}
+	
+	/**
+	 * The following function removes a listener added by addListener.
+	 * 
+	 * @param listener is a ModelListener.
+	 */
+	public void removeListener(ModelListener listener) {
+		listeners.remove(listener);
+	}
+	
+	/**
+	 * The following function returns a boolean based on whether every encrypted 
+	 * letter in the quote is mapped to its answer letter.
+	 * 
+	 * The count of solved letters is kept by the replacements, so this is one
+	 * comparison for any length of quote.
+	 * 
+	 * @return returns true if the game is solved.
+	 */
+	public boolean isSolved() {
+		return solvedLetters == distinctLetters;
 	}
 	
 	
@@ -80,12 +272,40 @@ public class CryptogramModel extends Observable {
 	 * The following function returns a string that represents the
 	 * user's decryption progress in a string.
 	 * 
+	 * The string is made from the decryption buffer the first time it is read
+	 * after a replacement.
+	 * 
 	 * @return decryptStr a string that represents the user's decryption.
 	 */
 	public String getDecryptedString() {
+		if (decryptStr == null) {
+			this.decryptStr = new String(decryptBuf);
+		}
 		return decryptStr;
 	}
 	
+	/**
+	 * The following function returns the user's decryption progress as a view
+	 * of the decryption buffer, so it can be read without making a string.
+	 * 
+	 * The view can't be changed and shows every later replacement.
+	 * 
+	 * @return returns a CharSequence of the user's decryption.
+	 */
+	public CharSequence getDecryptedChars() {
+		return CharBuffer.wrap(decryptBuf).asReadOnlyBuffer();
+	}
+	
+	/**
+	 * The following function returns the CipherEngine of the game's encryption key,
+	 * which can encrypt other texts with the same key.
+	 * 
+	 * @return engine a CipherEngine of the encryptMap.
+	 */
+	public CipherEngine getCipherEngine() {
+		return engine;
+	}
+	
 	/**
 	 * The following function returns a string that is the randomly chosen quote,
 	 * therefore the answer to the Cryptogram.
@@ -100,170 +320,364 @@ public class CryptogramModel extends Observable {
 	 * The following function returns a string that represents the
 	 * frequency of letters in the encryption string (encryptStr).
 	 * 
+	 * The string is made from the letter counts the first time it is asked for.
+	 * 
 	 * @return encryptFreq a string that represents encryption string frequency.
 	 */
 	public String getFrequency() {
+		if (encryptFreq == null) {
+			this.encryptFreq = createFreq();
+		}
 		return this.encryptFreq;
 	}
 	
+	/**
+	 * The following function returns the letter the user replaced the passed in
+	 * encrypted letter with.
+	 * 
+	 * @param encryptedChar is a char that may be a letter of the alphabet.
+	 * 
+	 * @return returns the capitalized replacement, if N/A returns NONE
+	 */
+	public char getReplacement(char encryptedChar) {
+		return userMap.get(encryptedChar);
+	}
+	
+	/**
+	 * The following function returns the number of times the passed in letter
+	 * is in the encryption string.
+	 * 
+	 * @param letter is a char that may be a letter of the alphabet.
+	 * 
+	 * @return returns an int count of the capitalized letter, if N/A returns 0
+	 */
+	public int getLetterCount(char letter) {
+		int index = CipherMap.indexOf(letter);
+		return index < 0 ? 0 : letterCounts[index];
+	}
+	
+	/**
+	 * The following function returns the number of times every letter is in
+	 * the encryption string.
+	 * 
+	 * @return returns an int array of 26 counts, index 0 is the count of 'A'.
+	 */
+	public int[] getLetterCounts() {
+		return letterCounts.clone();
+	}
+	
+	/**
+	 * The following function returns the letters of the alphabet from the most
+	 * to the least frequent in the encryption string. Letters with the same 
+	 * count are in alphabetical order.
+	 * 
+	 * @return returns a char array of the 26 capitalized letters.
+	 */
+	public char[] getLettersByFrequency() {
+		if (lettersByFreq == null) {
+			char[] letters = new char[CipherMap.ALPHABET_SIZE];
+			int n = 0;
+			//place the letters from the highest count down
+			boolean[] placed = new boolean[CipherMap.ALPHABET_SIZE];
+			while (n < CipherMap.ALPHABET_SIZE) {
+				int best = -1;
+				for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+					if (!placed[i] && (best < 0 || letterCounts[i] > letterCounts[best])) {
+						best = i;
+					}
+				}
+				placed[best] = true;
+				letters[n++] = (char) ('A' + best);
+			}
+			this.lettersByFreq = letters;
+		}
+		return lettersByFreq.clone();
+	}
+	
 	/**
 	 * The following function returns a string that is a quote from the file quotes.txt
 	 * to use as the instance of the answer for the game. 
 	 * 
-	 * The func. opens the file, adds the lines to an array list, and uses in built func.
-	 * math.random to generate a random number to select a random quote from the array.
+	 * The func. gets a random quote from the QuoteStore of the corpus, which is opened
+	 * once and shared by every game, so only the chosen quote is read from the file.
+	 * If the corpus is streamed the quote is sampled in one pass over the file instead.
 	 * The quote is returned capitalized.
 	 *  
-	 * @throws FileNotFoundException if file not found.
+	 * @throws UncheckedIOException if the corpus can't be read.
+	 * @throws IllegalStateException if no quote in a streamed corpus passes the filter.
 	 * @return quote is a string from quotes.txt. 
 	 */
-	private String chooseQuote() {
-		//open hard-coded file
-		Scanner quotesTxt = null;
-		
+	private static String chooseQuote() {
 		try {
-			quotesTxt = new Scanner(new File("quotes.txt"));
-		} catch(FileNotFoundException e) {
-			e.printStackTrace();
+			QuoteStore.LineFilter filter;
+			Path file;
+			synchronized (CryptogramModel.class) {
+				filter = streamFilter;
+				file = corpus;
+			}
+			if (filter == null) {
+				return quoteStore().randomQuote().toUpperCase();
+			}
+			String quote = QuoteStore.sample(file, ThreadLocalRandom.current(), filter);
+			if (quote == null) {
+				throw new IllegalStateException("No quote passes the filter in " + file);
+			}
+			return quote.toUpperCase();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-		
-		//make list of quotes
-		ArrayList<String> quotesList = new ArrayList<>();
-		
-		int countQuotes = 0;
-		while(quotesTxt.hasNextLine()) {
-			String quote = quotesTxt.nextLine();
-			quotesList.add(quote);
-			countQuotes++;
+	}
+	
+	/**
+	 * The following function returns the QuoteStore of the corpus, opening it
+	 * on the first call.
+	 * 
+	 * @throws IOException if the corpus can't be opened.
+	 * @return returns the QuoteStore shared by every CryptogramModel.
+	 */
+	private static synchronized QuoteStore quoteStore() throws IOException {
+		if (quotes == null) {
+			quotes = QuoteStore.open(corpus);
 		}
-		
-		//get random quote from quotesList
-		int randNum = (int) (Math.random() * countQuotes) ;
-		String quote = quotesList.get(randNum).toUpperCase();
-		
-		quotesTxt.close();
-		
-		return quote;
+		return quotes;
+	}
+	
+	/**
+	 * The following function sets the corpus the quotes of new games are chosen from.
+	 * 
+	 * A corpus that is not streamed is indexed once and shared by every game. A
+	 * streamed corpus is read in one pass for every game with constant memory,
+	 * which is for a corpus too big to index, and only quotes that pass the 
+	 * filter are chosen.
+	 * 
+	 * @param file is the Path of a corpus with one quote per line.
+	 * @param filter is a LineFilter for a streamed corpus, null to index the corpus.
+	 */
+	public static synchronized void useCorpus(Path file, QuoteStore.LineFilter filter) {
+		if (quotes != null) {
+			try {
+				quotes.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			quotes = null;
+		}
+		corpus = file;
+		streamFilter = filter;
 	}
 	
 	
 	/** 
-	 * The following function returns a hash map that maps the Alphabet to a random/shuffled 
+	 * The following function returns a CipherMap that maps the Alphabet to a random/shuffled 
 	 * letter to create an encryption. 
 	 * 
-	 * The func. creates the Alphabet by calling getAlphabet().
-	 * The func. then copys the alphabet list into another list
-	 * that is used with the inbuilt function Collection.shuffle. The contents of both array
-	 * lists are then mapped to each other to create the encryptMap. All letters are capitalized.
+	 * The func. makes the key with a KeyGenerator of the keySeed, which shuffles the alphabet
+	 * so that no letter maps to itself, with every such key equally likely. The same seed 
+	 * always makes the same key. All letters are capitalized.
 	 * 
-	 * @return encryptMap is a HashMap that maps the alphabet to a shuffled alphabet (encryption).
+	 * @return encryptMap is a frozen CipherMap that maps the alphabet to a shuffled alphabet (encryption).
 	 * 					  
 	 */
-	private ArrayMap<String, String> createEncryptMap() {
-		//make alphabet list
-		List<String> alphabet = getAlphabet();
-		
-		//make shuffled ver. of alphabet
-		List<String> shuffAlpha = new ArrayList<>(alphabet);
-		Collections.shuffle(shuffAlpha);
-		
-		//create encryption map (alpha --> shuffled alpha)
-		ArrayMap<String, String> encryptMap =  new ArrayMap<>();
-		
-		//create encryption map (alpha --> shuffled alpha)
-		for(int i = 0; i < alphabet.size(); i++) {
-			String str1 = alphabet.get(i);
-			for(int j = 0; j < shuffAlpha.size(); j++) {
-				String str2 = shuffAlpha.get(j);
-				if(!str1.equals(str2)){
-					encryptMap.put(str1, str2);
-					shuffAlpha.remove(j);
-					break;
-				}
-			}
-		}
-		
-		return encryptMap;
+	private CipherMap createEncryptMap() {
+		return KeyGenerator.keyOf(keySeed);
+	}
+	
+	/**
+	 * The following function returns the seed the encryption key was made from.
+	 * 
+	 * @return keySeed a long seed of the encryptMap.
+	 */
+	public long getKeySeed() {
+		return keySeed;
 	}
 	
 	/**
 	 * The following func. returns the encryption
 	 * string. 
 	 * 
-	 * It takes the chars from the answer/quote
-	 * and uses them for the key to access the encrypted str
-	 * in encryptMap to encrypt each char one at a time in a new str. 
-	 * All special characters are ignored and everything is capitalized.
+	 * It encrypts the answer/quote with the CipherEngine of 
+	 * the encryptMap, which reads each char's encryption from a 
+	 * table. All special characters are ignored and everything is capitalized.
 	 *  
 	 * @return str is a string that represents the quote encrypted.
 	 */
 	private String makeEncryptStr() {
-		String str= "";
-		for(int i = 0; i < answer.length(); i++) {
-			char c = answer.charAt(i);
-			if (Character.isAlphabetic(c) ) {
-				str += encryptMap.get(c + "");
-			} else {
-				str += c + "";
+		return engine.encrypt(answer);
+	}
+	
+	/**
+	 * The following function indexes the positions of every letter in encryptStr.
+	 * 
+	 * The positions are grouped by letter in one array, letterPositions, and the 
+	 * positions of a letter are from letterStarts[letter] to letterStarts[letter + 1],
+	 * so a replacement can find every position of its letter without a scan. The
+	 * letters are counted first, which is also the histogram in letterCounts.
+	 */
+	private void indexPositions() {
+		int[] starts = new int[CipherMap.ALPHABET_SIZE + 1];
+		for(int i = 0; i < encryptStr.length(); i++) {
+			int letter = CipherMap.indexOf(encryptStr.charAt(i));
+			if (letter >= 0) {
+				starts[letter + 1]++;
 			}
 		}
-		return str;
+		//the counts are the histogram of the encryption string
+		this.letterCounts = Arrays.copyOfRange(starts, 1, CipherMap.ALPHABET_SIZE + 1);
+		for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			starts[i + 1] += starts[i];
+		}
+		int[] positions = new int[starts[CipherMap.ALPHABET_SIZE]];
+		int[] next = Arrays.copyOf(starts, CipherMap.ALPHABET_SIZE);
+		for(int i = 0; i < encryptStr.length(); i++) {
+			int letter = CipherMap.indexOf(encryptStr.charAt(i));
+			if (letter >= 0) {
+				positions[next[letter]++] = i;
+			}
+		}
+		this.letterStarts = starts;
+		this.letterPositions = positions;
 	}
 	
 	/**
-	 * The following function returns the decryption string.
+	 * The following function returns the decryption buffer.
 	 * 
 	 * It take the chars from the encryptStr and replaces them if they are a key in 
 	 * the userMap.If not char remains the same. All special characters are ignored
-	 * and everything is capitalized. 
+	 * and everything is capitalized. The buffer is made once, then setReplacement 
+	 * writes only the positions of the replaced letter.
 	 * 
-	 * @return str is a string that represents the user's decryption.
+	 * @return str is a char array that represents the user's decryption.
 	 */
-	private String makeDecryptStr() {
-		String str = "";
+	private char[] makeDecryptBuf() {
+		char[] str = new char[encryptStr.length()];
 		for(int i = 0; i < encryptStr.length(); i++) {
 			char c = encryptStr.charAt(i);
-			String value = userMap.get(c + "");
+			char value = userMap.get(c);
 			if (!Character.isAlphabetic(c)) {
-				str += c + "";
-			} else if (value != null) {
-				str += value;
+				str[i] = c;
+			} else if (value != CipherMap.NONE) {
+				str[i] = value;
 			} else {
-				str += "?";
+				str[i] = '?';
 			}
 		}
 		return str;
 	}
 	
+	/**
+	 * The following function returns the decryption of every encrypted letter.
+	 * 
+	 * @return returns a char array of 26 letters, index 0 is the answer letter of 
+	 * the encrypted 'A'.
+	 */
+	private char[] makeSolution() {
+		char[] letters = new char[CipherMap.ALPHABET_SIZE];
+		for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			char letter = (char) ('A' + i);
+			//a letter the key does not map is encrypted as itself
+			letters[CipherMap.indexOf(engine.encrypt(letter))] = letter;
+		}
+		return letters;
+	}
+	
+	/**
+	 * The following function returns the set of encrypted letters in the quote 
+	 * that the userMap does not map to their answer letter.
+	 * 
+	 * The set is a bitset in an int, bit 0 is set if 'A' is unsolved. After it
+	 * is made setReplacement sets or clears the bit of the replaced letter.
+	 * 
+	 * @return returns an int bitset of the unsolved encrypted letters.
+	 */
+	private int makeUnsolved() {
+		int bits = 0;
+		for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			if (letterCounts[i] > 0 && userMap.get((char) ('A' + i)) != solution[i]) {
+				bits |= 1 << i;
+			}
+		}
+		return bits;
+	}
+	
+	/**
+	 * The following function returns the set of encrypted letters in the quote.
+	 * 
+	 * @return returns an int bitset of the letters with a count, bit 0 is 'A'.
+	 */
+	private int makePresent() {
+		int bits = 0;
+		for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			if (letterCounts[i] > 0) {
+				bits |= 1 << i;
+			}
+		}
+		return bits;
+	}
+	
+	/**
+	 * The following function returns the encrypted letters of the quote in the
+	 * order they are first in the encryption string.
+	 * 
+	 * @return returns an int array of the letter indexes, 0 is 'A', one per letter in the quote.
+	 */
+	private int[] makeLettersByPosition() {
+		int[] letters = new int[distinctLetters];
+		int seen = 0;
+		int n = 0;
+		for(int i = 0; i < encryptStr.length() && n < letters.length; i++) {
+			int letter = CipherMap.indexOf(encryptStr.charAt(i));
+			if (letter >= 0 && (seen & (1 << letter)) == 0) {
+				seen |= 1 << letter;
+				letters[n++] = letter;
+			}
+		}
+		return letters;
+	}
+	
+	/**
+	 * The following function sets the order hints are given in.
+	 * 
+	 * @param policy is a HintPolicy.
+	 */
+	public void setHintPolicy(HintPolicy policy) {
+		this.hintPolicy = policy;
+	}
+	
 	/**
 	 * The following function returns a correct key mapping of the encryption map.
 	 * 
-	 * It loops through the answer, encryptMap and userMap to return a mapping
-	 * that is either not in the userMap or is mapped incorrectly.
+	 * It takes an encrypted letter that is either not in the userMap or is mapped
+	 * incorrectly from the bitset of unsolved letters, so no letters are searched.
+	 * The letter is picked by the HintPolicy, first in the quote (the default), first
+	 * in the alphabet or most frequent.
 	 * 
-	 * @return hint[] is a string array of a correct mapping.
+	 * @return hint[] is a string array of a correct mapping, if the game is over
+	 * both are null
 	 */
 	public String[] getMapping() {
-		String[] answer = this.answer.split("");
 		String hint[] = new String[2];
-		for(int i = 0; i < answer.length; i++) {
-			String letter = answer[i];
-			if(Character.isLetter(letter.charAt(0))){
-				String ans = encryptMap.get(letter);
-				if(userMap.containsKey(ans)) {
-					String guess = userMap.get(ans);
-					if(!guess.equals(letter)) {
-						hint[0] = ans;
-						hint[1] = letter;
-						break;
-					}
-				} else {
-					hint[0] = ans;
-					hint[1] = letter;
+		int letter = -1;
+		if (unsolved != 0 && hintPolicy == HintPolicy.MOST_FREQUENT) {
+			for (char c : getLettersByFrequency()) {
+				if ((unsolved & (1 << (c - 'A'))) != 0) {
+					letter = c - 'A';
+					break;
+				}
+			}
+		} else if (unsolved != 0 && hintPolicy == HintPolicy.ALPHABETICAL) {
+			letter = Integer.numberOfTrailingZeros(unsolved);
+		} else if (unsolved != 0) {
+			for (int c : lettersByPosition) {
+				if ((unsolved & (1 << c)) != 0) {
+					letter = c;
 					break;
 				}
 			}
 		}
+		if (letter >= 0) {
+			hint[0] = String.valueOf((char) ('A' + letter));
+			hint[1] = String.valueOf(solution[letter]);
+		}
 		return hint;
 	}
 	
@@ -272,45 +686,20 @@ public class CryptogramModel extends Observable {
 	 * of letters in the encryption string. 
 	 * 
 	 * The string is 7 letters per line (4 total) in the format Letter: count. The 
-	 * function first counts occurrences and adds the letter and its count to a 
-	 * HashMap (freq), which is used to make string in the format mentioned above.
+	 * counts are read from the histogram letterCounts, so no counting is done.
 	 * 
 	 * @return str is a string that represents the frequency of letters in encryptStr.
 	 */
 	private String createFreq() {
-		//count occurrences
-		List<String> alphabet = getAlphabet();
-		String quote = this.encryptStr;
-		ArrayMap<String, Integer> freq =  new ArrayMap<>();
-		for(char c: quote.toCharArray()) {
-			String letter = (c +"");
-			if(freq.containsKey(letter)) {
-				int count = freq.get(letter);
-				freq.put(letter, count+1);
-			} else {
-				freq.put(letter, 1);
-			}
-		}
-		
-		//create frequency string
-		String str = "";
-		int n = 1;
-		for(int i = 0; i < 26; i++) {
-			String letter = alphabet.get(i);
-			if(freq.containsKey(letter)) {
-				int count = freq.get(letter);
-				str += letter+": "+ count + " ";
-			} else {
-				str += letter+": "+ "0" + " ";
-			}
+		StringBuilder str = new StringBuilder();
+		for(int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			str.append((char) ('A' + i)).append(": ").append(letterCounts[i]).append(' ');
 			//add newline to get 7 or less letters per line
-			if(n%7==0) {
-				str +="\n";
-				n = 0;
+			if((i + 1) % 7 == 0) {
+				str.append('\n');
 			}
-			n++;
 		}
-		return str;
+		return str.toString();
 	}
 	
 	/**
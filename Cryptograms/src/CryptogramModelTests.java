@@ -0,0 +1,228 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the state CryptogramModel keeps of the user's decryption.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see CryptogramModel
+ */
+public class CryptogramModelTests {
+
+    /**
+     * Tests the count of solved letters follows the replacements.
+     */
+	@Test
+	void testSolved() {
+		CryptogramModel model = new CryptogramModel("Abba cab", 335);
+		List<ReplacementEvent> events = new ArrayList<>();
+		model.addListener(events::add);
+		CipherEngine engine = model.getCipherEngine();
+		char a = engine.encrypt('A');
+		char b = engine.encrypt('B');
+		char c = engine.encrypt('C');
+		assertFalse(model.isSolved());
+
+		//test a letter solved twice is counted once
+		model.setReplacement(a, 'A');
+		model.setReplacement(a, 'a');
+		model.setReplacements(new char[] {a, a}, new char[] {'A', 'A'});
+		model.setReplacement(b, 'B');
+		assertFalse(model.isSolved());
+
+		//test a letter that is not in the quote doesn't change the count
+		model.setReplacement(engine.encrypt('Z'), 'Q');
+		assertFalse(model.isSolved());
+
+		//test solving every letter solves the game, and only that event is solved
+		model.setReplacement(c, 'C');
+		assertTrue(model.isSolved());
+		assertEquals(events.size(), 4);
+		for (int i = 0; i < events.size() - 1; i++) {
+			assertFalse(events.get(i).isSolved());
+		}
+		assertTrue(events.get(3).isSolved());
+
+		//test remapping a letter wrongly unsolves the game, and mapping it back solves it
+		model.setReplacement(b, 'Z');
+		assertFalse(model.isSolved());
+		assertFalse(events.get(4).isSolved());
+		model.setReplacement(b, 'B');
+		assertTrue(model.isSolved());
+		assertTrue(events.get(5).isSolved());
+
+		//test a wrong and a right value of a letter in one call is solved
+		model.setReplacements(new char[] {a, a}, new char[] {'Z', 'A'});
+		assertTrue(model.isSolved());
+		assertEquals(events.size(), 6);
+	}
+
+    /**
+     * Tests the decryption buffer reads the same as a decryption made the
+     * slow way, from the encrypted string and the user's replacements.
+     */
+	@Test
+	void testDecryption() {
+		CryptogramModel model = new CryptogramModel("Hello, World! It's 2 o'clock.", 335);
+		CipherEngine engine = model.getCipherEngine();
+		CharSequence chars = model.getDecryptedChars();
+
+		//test every letter starts blank and the rest are kept in place
+		assertEquals(model.getDecryptedString(), "?????, ?????! ??'? 2 ?'?????.");
+		assertDecryption(model, chars);
+
+		//test a replacement and remapping a letter that is set
+		model.setReplacement(engine.encrypt('L'), 'x');
+		assertDecryption(model, chars);
+		model.setReplacement(engine.encrypt('L'), 'L');
+		assertEquals(model.getDecryptedString(), "??LL?, ???L?! ??'? 2 ?'?L???.");
+		assertDecryption(model, chars);
+
+		//test several letters in one call, one of them set twice
+		model.setReplacements(new char[] {engine.encrypt('O'), engine.encrypt('C'), engine.encrypt('O'), '!'},
+				new char[] {'Q', 'C', 'O', 'A'});
+		assertEquals(model.getDecryptedString(), "??LLO, ?O?L?! ??'? 2 O'CLOC?.");
+		assertDecryption(model, chars);
+	}
+
+    /**
+     * Tests the letter each HintPolicy gives a hint for.
+     */
+	@Test
+	void testGetMapping() {
+		CryptogramModel model = new CryptogramModel("Hello, World! It's 2 o'clock.", 335);
+		CipherEngine engine = model.getCipherEngine();
+		CipherEngine inverse = engine.inverse();
+		char h = engine.encrypt('H');
+
+		//test the default gives the first unsolved letter of the quote
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(h), "H"});
+		model.setReplacement(h, 'H');
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(engine.encrypt('E')), "E"});
+
+		//test a letter mapped wrongly is given again
+		model.setReplacement(h, 'E');
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(h), "H"});
+		model.setReplacement(h, 'H');
+
+		//test alphabetical gives the lowest unsolved encrypted letter
+		model.setHintPolicy(CryptogramModel.HintPolicy.ALPHABETICAL);
+		char lowest = 0;
+		for (char c = 'A'; c <= 'Z' && lowest == 0; c++) {
+			if (model.getLetterCount(c) > 0 && model.getReplacement(c) != inverse.encrypt(c)) {
+				lowest = c;
+			}
+		}
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(lowest), String.valueOf(inverse.encrypt(lowest))});
+		model.setReplacement(lowest, 'Q');
+		assertEquals(model.getMapping()[0], String.valueOf(lowest));
+
+		//test most frequent agrees with getLettersByFrequency, L and O are both 4
+		model.setHintPolicy(CryptogramModel.HintPolicy.MOST_FREQUENT);
+		char[] byFreq = model.getLettersByFrequency();
+		assertEquals(model.getLetterCount(byFreq[0]), 4);
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(byFreq[0]), String.valueOf(inverse.encrypt(byFreq[0]))});
+		model.setReplacement(byFreq[0], inverse.encrypt(byFreq[0]));
+		assertArrayEquals(model.getMapping(), new String[] {String.valueOf(byFreq[1]), String.valueOf(inverse.encrypt(byFreq[1]))});
+
+		//test a solved game has no hint with any policy
+		String letters = "HELOWRDITSCK";
+		char[] encrypted = new char[letters.length()];
+		for (int i = 0; i < letters.length(); i++) {
+			encrypted[i] = engine.encrypt(letters.charAt(i));
+		}
+		model.setReplacements(encrypted, letters.toCharArray());
+		assertTrue(model.isSolved());
+		for (CryptogramModel.HintPolicy policy : CryptogramModel.HintPolicy.values()) {
+			model.setHintPolicy(policy);
+			assertArrayEquals(model.getMapping(), new String[] {null, null});
+		}
+	}
+
+    /**
+     * Tests the letter counts, the letters by frequency and the frequency string.
+     */
+	@Test
+	void testFrequency() {
+		CryptogramModel model = new CryptogramModel("Hello, World! It's 2 o'clock.", 335);
+		String encrypted = model.getEncryptedString();
+
+		//test the counts are the letters of the encrypted string counted one by one
+		int[] counts = new int[26];
+		for (char c : encrypted.toCharArray()) {
+			if (c >= 'A' && c <= 'Z') {
+				counts[c - 'A']++;
+			}
+		}
+		assertArrayEquals(model.getLetterCounts(), counts);
+		for (char c = 'A'; c <= 'Z'; c++) {
+			assertEquals(model.getLetterCount(c), counts[c - 'A']);
+			assertEquals(model.getLetterCount(Character.toLowerCase(c)), counts[c - 'A']);
+		}
+		assertEquals(model.getLetterCount('!'), 0);
+
+		//test the letters go from the most to the least frequent, ties in alphabetical order
+		char[] byFreq = model.getLettersByFrequency();
+		assertEquals(byFreq.length, 26);
+		for (int i = 0; i < byFreq.length - 1; i++) {
+			int count = counts[byFreq[i] - 'A'];
+			int next = counts[byFreq[i + 1] - 'A'];
+			assertTrue(count > next || (count == next && byFreq[i] < byFreq[i + 1]));
+		}
+		assertEquals(counts[byFreq[0] - 'A'], 4);
+		assertEquals(counts[byFreq[1] - 'A'], 4);
+
+		//test the arrays can be changed without changing the model
+		char[] copy = byFreq.clone();
+		byFreq[0] = '?';
+		model.getLetterCounts()[copy[0] - 'A'] = 100;
+		assertArrayEquals(model.getLettersByFrequency(), copy);
+		assertArrayEquals(model.getLetterCounts(), counts);
+
+		//test the frequency string is "X: n " with a line after every 7 letters
+		StringBuilder freq = new StringBuilder();
+		for (int i = 0; i < 26; i++) {
+			freq.append((char) ('A' + i)).append(": ").append(counts[i]).append(' ');
+			if ((i + 1) % 7 == 0) {
+				freq.append('\n');
+			}
+		}
+		assertEquals(model.getFrequency(), freq.toString());
+		String[] lines = model.getFrequency().split("\n");
+		assertEquals(lines.length, 4);
+		assertTrue(lines[0].startsWith("A: " + counts[0] + " B: "));
+		assertTrue(lines[3].endsWith("Z: " + counts[25] + " "));
+		assertSame(model.getFrequency(), model.getFrequency());
+	}
+
+	/**
+	 * The following function checks the passed in model's decrypted string and
+	 * chars against a decryption made from the encrypted string, as the model
+	 * first made it.
+	 *
+	 * @param model is a CryptogramModel.
+	 * @param chars is the CharSequence from the model's getDecryptedChars.
+	 */
+	private static void assertDecryption(CryptogramModel model, CharSequence chars) {
+		String encrypted = model.getEncryptedString();
+		StringBuilder str = new StringBuilder();
+		for (int i = 0; i < encrypted.length(); i++) {
+			char c = encrypted.charAt(i);
+			char value = model.getReplacement(c);
+			if (!Character.isAlphabetic(c)) {
+				str.append(c);
+			} else if (value != CipherMap.NONE) {
+				str.append(value);
+			} else {
+				str.append('?');
+			}
+		}
+		assertEquals(model.getDecryptedString(), str.toString());
+		assertEquals(chars.toString(), str.toString());
+		assertEquals(model.getDecryptedChars().toString(), str.toString());
+	}
+}
@@ -1,7 +1,14 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
-import javafx.application.Application;
-import javafx.stage.Stage;
 /** 
 * Author: Fernando Ruiz
 * FILE: CryptogramTextView.java
@@ -14,71 +21,174 @@ import javafx.stage.Stage;
 *          the correct decryption of the encrypted string. Note if the user enters numbers or more than
 *          one character on the line they will be ignored, only the first character will be processed
 *          (if alphabetic). The program is a view that utilizes the class CryptogramController to manipulate
-*          the class CryptogramModel. See other classes for more information.
+*          the class CryptogramModel. With the argument "-ansi" the display is drawn once
+*          at the top of the terminal and only the letters that change are redrawn, see AnsiBoard.
+*          With "-batch [file]" the commands are read from a script instead, see BatchRunner.
+*          The class uses no JavaFX, so the text interface runs without starting the toolkit.
+*          See other classes for more information.
 * 
 * @author Fernando Ruiz
 * @see CryptogramController
 */
 
-public class CryptogramTextView  extends Application {
+public class CryptogramTextView {
+	
+	private static final String PROMPT =
+			"--------------------------------------------\n" +
+			"Enter a command (type help to see commands):\n" +
+			"--------------------------------------------\n";
 	
 	public static void main(String[] args) {
 		CryptogramController game = new CryptogramController();
 		
+		//output is buffered and only flushed before waiting for input
+		PrintWriter out = new PrintWriter(new BufferedWriter(new OutputStreamWriter(System.out)), false);
+		if(hasArg(args, "-batch")) {
+			runBatch(game, args, out);
+			return;
+		}
 		Scanner userInput = new Scanner(System.in);
+		//with -ansi the display stays in place and only changed letters are redrawn
+		AnsiBoard board = hasArg(args, "-ansi") ? new AnsiBoard(game, out) : null;
 		
-		while(!game.isGameOver()) {
-			//print display
-			System.out.println(game.printCryptogram());
-			
-			//command prompt
-			System.out.println("--------------------------------------------");
-			System.out.println("Enter a command (type help to see commands):");
-			System.out.println("--------------------------------------------");
-			
-			//process input
-			String getCommandInfo = userInput.nextLine();
-			String[] commandInfo = getCommandInfo.toLowerCase().split(" ");
-			String command = commandInfo[0];
-			System.out.println();
+		try {
+			if(board != null) {
+				board.draw(PROMPT);
+			}
+			while(!game.isGameOver()) {
+				if(board == null) {
+					//print display
+					game.writeCryptogram(out);
+					out.println();
+					
+					//command prompt
+					out.print(PROMPT);
+				} else {
+					board.startInput();
+				}
+				out.flush();
+				
+				//process input
+				String getCommandInfo = userInput.nextLine();
+				String[] commandInfo = getCommandInfo.toLowerCase().split(" ");
+				String command = commandInfo[0];
+				if(board == null) {
+					out.println();
+				} else {
+					board.startMessages();
+				}
+				
+				//commands
+				if(command.equals("replace") || commandInfo.length >=3) {
+					out.print(game.replaceCommand(commandInfo));
+				} else if(command.equals("freq")) {
+					game.writeFreq(out);
+					out.println();
+				} else if(command.equals("hint")) {
+					String[] hint = game.getHint();
+					out.append("Hint: ").append(hint[0]).append(" = ").append(hint[1]).println();
+				} else if (command.equals("exit")) {
+					out.println("Game Ended Early!");
+					break;
+				} else if (command.equals("help")) {
+					game.writeCommands(out);
+					out.println();
+				} else {
+					out.println("Enter valid command!");
+				}
+				if(board == null) {
+					out.println();
+				}
+			}
 			
-			//commands
-			if(command.equals("replace") || commandInfo.length >=3) {
-				System.out.print(game.replaceCommand(commandInfo));
-			} else if(command.equals("freq")) {
-				System.out.println(game.getFreq());
-			} else if(command.equals("hint")) {
-				String[] hint = game.getHint();
-				System.out.println("Hint: "+ hint[0] + " = " + hint[1]);
-			} else if (command.equals("exit")) {
-				System.out.println("Game Ended Early!");
-				break;
-			} else if (command.equals("help")) {
-				System.out.println(game.printCommands());
-			} else {
-				System.out.println("Enter valid command!");
+			//exited loop check if game is over 
+			//because user could have used exit command
+			if(game.isGameOver()) {
+				if(board == null) {
+					game.writeCryptogram(out);
+					out.println();
+				}
+				out.print("You got it!");
 			}
-			System.out.println();
-		}
-		
-		//exited loop check if game is over 
-		//because user could have used exit command
-		if(game.isGameOver()) {
-			System.out.println(game.printCryptogram());
-			System.out.print("You got it!");
+		} catch (IOException e) {
+			//a PrintWriter doesn't throw, it keeps an error flag instead
 		}
+		out.flush();
 		
 		userInput.close();
 	}
 	
 	/**
-	 * The following function launches main in this class.
+	 * The following function plays the game from a script of commands, read
+	 * from the file after "-batch" or from System.in if there is none. With
+	 * "-checkpoint N" the display is written every N commands. A checkpoint that
+	 * is not a number of 0 or more, or a script that can't be read, is reported
+	 * in one line.
+	 * 
+	 * @param game is a CryptogramController of the game to play.
+	 * @param args is a String array of the command line arguments.
+	 * @param out is a PrintWriter of the output, flushed at the end.
+	 * @see BatchRunner
+	 */
+	private static void runBatch(CryptogramController game, String[] args, PrintWriter out) {
+		String script = argValue(args, "-batch");
+		BatchRunner runner;
+		try {
+			runner = new BatchRunner(game, out, BatchRunner.parseCheckpoint(argValue(args, "-checkpoint")));
+		} catch (IllegalArgumentException e) {
+			out.println("Enter valid checkpoint! -checkpoint N takes a number of 0 or more.");
+			out.flush();
+			return;
+		}
+		try (Reader in = script == null ? new BufferedReader(new InputStreamReader(System.in))
+				: Files.newBufferedReader(Paths.get(script))) {
+			runner.run(in);
+		} catch (IOException e) {
+			out.println("Can't read script: " + (script == null ? "stdin" : script));
+		}
+		out.flush();
+	}
+	
+	/**
+	 * The following function returns the command line argument after the
+	 * passed in argument, if it is not an option itself. A negative number
+	 * is returned, so it can be reported as a bad value.
 	 * 
-	 * @param primaryStage is stage object.
-	 * @throws Exception
+	 * @param args is a String array of the command line arguments, may be null.
+	 * @param arg is a String argument to look for.
+	 * 
+	 * @return returns a String of the argument after arg, if N/A returns null
 	 */
-	@Override
-	public void start(Stage primaryStage) throws Exception {
-		main(null);
+	private static String argValue(String[] args, String arg) {
+		if(args != null) {
+			for(int i = 0; i + 1 < args.length; i++) {
+				String value = args[i + 1];
+				boolean negative = value.length() > 1 && value.charAt(0) == '-' && Character.isDigit(value.charAt(1));
+				if(args[i].equals(arg) && (!value.startsWith("-") || negative)) {
+					return args[i + 1];
+				}
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * The following function returns true if the passed in argument is
+	 * one of the command line arguments.
+	 * 
+	 * @param args is a String array of the command line arguments, may be null.
+	 * @param arg is a String argument to look for.
+	 * 
+	 * @return returns a boolean, true if arg was passed in.
+	 */
+	private static boolean hasArg(String[] args, String arg) {
+		if(args != null) {
+			for(String str : args) {
+				if(str.equals(arg)) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 }
\ No newline at end of file
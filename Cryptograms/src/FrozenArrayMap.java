@@ -0,0 +1,487 @@
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+
+/**
+ * The following class represents a FrozenArrayMap, which is an immutable ArrayMap
+ * for a key set that is known up front.
+ *
+ * The following class represents a generic map that is made once from the pairs of
+ * another map and can't be changed after. The keys are placed in a table with a
+ * perfect hash, so every key has its own slot and a lookup is one slot read and one
+ * equals. The perfect hash is built with hash and displace: the keys are split into
+ * small buckets by their hash, and every bucket is given a seed that sends its keys
+ * to empty slots. A lookup reads the seed of its bucket, then the slot. If no seed
+ * can be found, which happens when two different keys have the same hashCode, the
+ * table is built with linear probing instead. The pairs are iterated in the order
+ * of the map they were made from. Every method that would change the map throws
+ * UnsupportedOperationException.
+ *
+ * @author Fernando Ruiz
+ * @see ArrayMap
+ *
+ * @param <K> generic type for keys
+ * @param <V> generic type for values
+ */
+public class FrozenArrayMap<K, V> extends AbstractMap<K, V> {
+
+	private static final int BUCKET_SIZE = 4;
+	private static final int MAX_SEEDS = 1 << 12;
+	private static final int MAX_GROWS = 3;
+	private final Object[] keys;
+	private final Object[] values;
+	private final int[] seeds;
+	private final int[] order;
+	private final int mask;
+	private final boolean probing;
+	private Set<Entry<K, V>> entryView;
+
+	/**
+	 * Constructor for FrozenArrayMap.
+	 *
+	 * The constructor copies the pairs of the passed in map into a table
+	 * with a perfect hash, trying bigger tables if no seed fits, and falls
+	 * back to linear probing if none of them work.
+	 *
+	 * @param map is a Map of the pairs to freeze.
+	 *
+	 * @throws NullPointerException if the map has a null key.
+	 */
+	public FrozenArrayMap(Map<? extends K, ? extends V> map) {
+		int n = map.size();
+		Object[] pairKeys = new Object[n];
+		Object[] pairValues = new Object[n];
+		int i = 0;
+		for (Entry<? extends K, ? extends V> entry : map.entrySet()) {
+			pairKeys[i] = Objects.requireNonNull(entry.getKey());
+			pairValues[i] = entry.getValue();
+			i++;
+		}
+
+		int length = tableSizeFor(Math.max(2, n * 2));
+		int[] slots = null;
+		int[] bucketSeeds = new int[tableSizeFor(Math.max(1, n / BUCKET_SIZE))];
+		for (int grows = 0; slots == null && grows <= MAX_GROWS; grows++) {
+			slots = perfectSlots(pairKeys, length, bucketSeeds);
+			if (slots == null) {
+				length <<= 1;
+			}
+		}
+		this.probing = slots == null;
+		if (probing) {
+			length = tableSizeFor(Math.max(2, n * 2));
+			Arrays.fill(bucketSeeds, 0);
+			slots = probedSlots(pairKeys, length);
+		}
+
+		this.mask = length - 1;
+		this.seeds = bucketSeeds;
+		this.keys = new Object[length];
+		this.values = new Object[length];
+		this.order = slots;
+		for (i = 0; i < n; i++) {
+			keys[slots[i]] = pairKeys[i];
+			values[slots[i]] = pairValues[i];
+		}
+	}
+
+	/**
+	 * The following function returns the value the passed in key maps to.
+	 *
+	 * The seed of the key's bucket gives the one slot the key can be in.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the value of the key, if N/A returns null
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public V get(Object key) {
+		int slot = slotOf(key);
+		return slot < 0 ? null : (V) values[slot];
+	}
+
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in key is in the map.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns true if the key is in the map.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return slotOf(key) >= 0;
+	}
+
+	/**
+	 * The following function returns the number of mappings in the map.
+	 *
+	 * @return returns an int that represents the size(pairs) of the map.
+	 */
+	@Override
+	public int size() {
+		return order.length;
+	}
+
+	/**
+	 * The following function returns a set of entry pairs.
+	 *
+	 * The following function returns a FrozenArrayMapEntrySet, which is
+	 * a read only view of the pairs in the order they were frozen.
+	 *
+	 * @return returns a FrozenArrayMapEntrySet of key value pairs in the map.
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entryView == null) {
+			entryView = new FrozenArrayMapEntrySet();
+		}
+		return entryView;
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V put(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V remove(Object key) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public void putAll(Map<? extends K, ? extends V> map) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public void replaceAll(BiFunction<? super K, ? super V, ? extends V> function) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V putIfAbsent(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public boolean remove(Object key, Object value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public boolean replace(K key, V oldValue, V newValue) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V replace(K key, V value) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * @throws UnsupportedOperationException always, the map is immutable.
+	 */
+	@Override
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * The following function returns the slot of the passed in key.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the slot of the key, if N/A returns -1
+	 */
+	private int slotOf(Object key) {
+		if (key == null) {
+			return -1;
+		}
+		int h = hash(key);
+		int slot = mix(h, seeds[bucket(h, seeds.length - 1)]) & mask;
+		if (!probing) {
+			return key.equals(keys[slot]) ? slot : -1;
+		}
+		for (; keys[slot] != null; slot = (slot + 1) & mask) {
+			if (key.equals(keys[slot])) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The following function finds a seed for every bucket so that each key
+	 * has its own slot in a table of the passed in length.
+	 *
+	 * The buckets with the most keys are placed first, while the table is
+	 * emptiest. For each bucket the seeds are tried in order until all of its
+	 * keys land on empty slots that are different from each other.
+	 *
+	 * @param keys is an Object array of the keys.
+	 * @param length is an int power of two length of the table.
+	 * @param seeds is an int array that gets the seed of each bucket.
+	 *
+	 * @return returns an int array of the slot of each key, if N/A returns null
+	 */
+	private static int[] perfectSlots(Object[] keys, int length, int[] seeds) {
+		int bucketMask = seeds.length - 1;
+		int[] hashes = new int[keys.length];
+		int[] bucketSizes = new int[seeds.length];
+		for (int i = 0; i < keys.length; i++) {
+			hashes[i] = hash(keys[i]);
+			bucketSizes[bucket(hashes[i], bucketMask)]++;
+		}
+
+		//list the keys of each bucket, with the biggest buckets first
+		Integer[] buckets = new Integer[seeds.length];
+		for (int b = 0; b < buckets.length; b++) {
+			buckets[b] = b;
+		}
+		Arrays.sort(buckets, (b1, b2) -> bucketSizes[b2] - bucketSizes[b1]);
+		int[] bucketStart = new int[seeds.length + 1];
+		for (int b = 0; b < seeds.length; b++) {
+			bucketStart[b + 1] = bucketStart[b] + bucketSizes[b];
+		}
+		int[] bucketKeys = new int[keys.length];
+		int[] filled = new int[seeds.length];
+		for (int i = 0; i < keys.length; i++) {
+			int b = bucket(hashes[i], bucketMask);
+			bucketKeys[bucketStart[b] + filled[b]++] = i;
+		}
+
+		int mask = length - 1;
+		boolean[] used = new boolean[length];
+		int[] slots = new int[keys.length];
+		for (int b : buckets) {
+			if (bucketSizes[b] == 0) {
+				break;
+			}
+			boolean placed = false;
+			for (int seed = 0; !placed && seed < MAX_SEEDS; seed++) {
+				placed = true;
+				int k = bucketStart[b];
+				for (; k < bucketStart[b + 1]; k++) {
+					int slot = mix(hashes[bucketKeys[k]], seed) & mask;
+					if (used[slot]) {
+						placed = false;
+						break;
+					}
+					used[slot] = true;
+					slots[bucketKeys[k]] = slot;
+				}
+				if (!placed) {
+					//give back the slots of this try
+					for (int j = bucketStart[b]; j < k; j++) {
+						used[slots[bucketKeys[j]]] = false;
+					}
+				} else {
+					seeds[b] = seed;
+				}
+			}
+			if (!placed) {
+				return null;
+			}
+		}
+		return slots;
+	}
+
+	/**
+	 * The following function places the keys in a table of the passed in
+	 * length with linear probing and a seed of zero.
+	 *
+	 * @param keys is an Object array of the keys.
+	 * @param length is an int power of two length of the table.
+	 *
+	 * @return returns an int array of the slot of each key.
+	 */
+	private static int[] probedSlots(Object[] keys, int length) {
+		int mask = length - 1;
+		boolean[] used = new boolean[length];
+		int[] slots = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			int slot = mix(hash(keys[i]), 0) & mask;
+			while (used[slot]) {
+				slot = (slot + 1) & mask;
+			}
+			used[slot] = true;
+			slots[i] = slot;
+		}
+		return slots;
+	}
+
+	/**
+	 * @param key is an Object that is not null.
+	 *
+	 * @return returns the hash code of the key with its high bits spread.
+	 */
+	private static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * @param h is an int hash of a key.
+	 * @param bucketMask is an int one less than the number of buckets.
+	 *
+	 * @return returns the bucket of the hash.
+	 */
+	private static int bucket(int h, int bucketMask) {
+		int x = h * 0x85EBCA6B;
+		return (x ^ (x >>> 13)) & bucketMask;
+	}
+
+	/**
+	 * @param h is an int hash of a key.
+	 * @param seed is an int seed of the key's bucket.
+	 *
+	 * @return returns the hash mixed with the seed, before it is masked to a slot.
+	 */
+	private static int mix(int h, int seed) {
+		int x = (h ^ seed * 0x27D4EB2F) * 0x9E3779B9;
+		return x ^ (x >>> 15);
+	}
+
+	/**
+	 * @param capacity is an int number of slots.
+	 *
+	 * @return returns the smallest power of two that is at least capacity.
+	 */
+	private static int tableSizeFor(int capacity) {
+		int length = 1;
+		while (length < capacity) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	/**
+	 * The following class represents a read only entry set for the FrozenArrayMap.
+	 *
+	 * The set is a view of the table that walks the slots in the order the
+	 * pairs were frozen. The class extends AbstractSet and overrides the methods
+	 * size, contains and iterator.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class FrozenArrayMapEntrySet extends AbstractSet<Entry<K, V>> {
+
+		/**
+		 * @return returns int that represents the size of the entrySet
+		 */
+		@Override
+		public int size() {
+			return order.length;
+		}
+
+		/**
+		 * The following function returns true if the passed in object is an
+		 * entry whose key maps to its value in the map.
+		 *
+		 * @param o is an Object that may exist in the entry set.
+		 *
+		 * @return returns a boolean based on if the object is in the entrySet
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Entry) {
+				Entry<?, ?> entry = (Entry<?, ?>) o;
+				int slot = slotOf(entry.getKey());
+				return slot >= 0 && Objects.equals(values[slot], entry.getValue());
+			}
+			return false;
+		}
+
+		/**
+		 * @return returns a read only iterator over the pairs.
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new Iterator<Entry<K, V>>() {
+				private int index = 0;
+
+				@Override
+				public boolean hasNext() {
+					return index < order.length;
+				}
+
+				@SuppressWarnings("unchecked")
+				@Override
+				public Entry<K, V> next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					int slot = order[index++];
+					return new SimpleImmutableEntry<>((K) keys[slot], (V) values[slot]);
+				}
+			};
+		}
+	}
+}
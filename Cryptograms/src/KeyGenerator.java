@@ -0,0 +1,155 @@
+import java.util.SplittableRandom;
+
+
+/**
+ * The following class represents a KeyGenerator, which makes encryption keys
+ * for the Cryptogram game.
+ *
+ * The following class makes keys that are derangements of the alphabet, so every
+ * letter is encrypted to a letter other than itself, and every derangement is as
+ * likely as any other. A key is made by shuffling the alphabet from the last letter
+ * to the first, and starting over as soon as a letter is placed on itself. Starting
+ * over early keeps the keys uniform, since a shuffle that is started over would have
+ * had that letter on itself at the end too, and about one in three shuffles is a
+ * derangement, so a key takes a few dozen random ints on average. The random numbers
+ * come from a SplittableRandom, so a KeyGenerator made with a seed makes the same
+ * keys every time, and a key can be made again from its seed with keyOf. Keys can
+ * be written as 26 chars into a char array one at a time or many at once.
+ *
+ * A KeyGenerator is not thread safe, the function split makes an independent
+ * KeyGenerator for another thread.
+ *
+ * @author Fernando Ruiz
+ * @see CipherMap
+ * @see CryptogramModel
+ */
+public class KeyGenerator {
+
+	private final SplittableRandom random;
+
+	/**
+	 * Constructor for KeyGenerator with a random seed.
+	 */
+	public KeyGenerator() {
+		this(new SplittableRandom());
+	}
+
+	/**
+	 * Constructor for KeyGenerator with the passed in seed.
+	 *
+	 * @param seed is a long that determines every key made.
+	 */
+	public KeyGenerator(long seed) {
+		this(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Constructor for KeyGenerator from a SplittableRandom.
+	 *
+	 * @param random is a SplittableRandom only used by this KeyGenerator.
+	 */
+	private KeyGenerator(SplittableRandom random) {
+		this.random = random;
+	}
+
+	/**
+	 * The following function returns the key made by a KeyGenerator with the
+	 * passed in seed, so a puzzle's key can be made again from its seed.
+	 *
+	 * @param seed is a long seed.
+	 *
+	 * @return returns a frozen CipherMap of the first key of the seed.
+	 */
+	public static CipherMap keyOf(long seed) {
+		return new KeyGenerator(seed).nextKey();
+	}
+
+	/**
+	 * The following function returns a new KeyGenerator whose keys are
+	 * independent of this one's, for making keys on another thread.
+	 *
+	 * @return returns a KeyGenerator split from this one.
+	 */
+	public KeyGenerator split() {
+		return new KeyGenerator(random.split());
+	}
+
+	/**
+	 * The following function returns the next key.
+	 *
+	 * @return returns a frozen CipherMap that maps every letter to another letter.
+	 */
+	public CipherMap nextKey() {
+		char[] key = new char[CipherMap.ALPHABET_SIZE];
+		nextKey(key, 0);
+		CipherMap map = new CipherMap();
+		for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+			map.put((char) ('A' + i), key[i]);
+		}
+		return map.freeze();
+	}
+
+	/**
+	 * The following function writes the next key into the passed in array.
+	 *
+	 * The char at offset + i is the encryption of the letter 'A' + i.
+	 *
+	 * @param dest is a char array to write the key to.
+	 * @param offset is the int index to write the encryption of 'A' to.
+	 *
+	 * @throws IndexOutOfBoundsException if the key does not fit in dest.
+	 */
+	public void nextKey(char[] dest, int offset) {
+		nextKeys(dest, offset, 1);
+	}
+
+	/**
+	 * The following function writes the passed in number of keys into the
+	 * passed in array, one after another.
+	 *
+	 * @param dest is a char array to write the keys to.
+	 * @param offset is the int index to write the first key to.
+	 * @param count is the int number of keys to write, 26 chars each.
+	 *
+	 * @throws IndexOutOfBoundsException if the keys do not fit in dest.
+	 */
+	public void nextKeys(char[] dest, int offset, int count) {
+		if (offset < 0 || count < 0
+				|| offset > dest.length - (long) count * CipherMap.ALPHABET_SIZE) {
+			throw new IndexOutOfBoundsException("Keys " + offset + " + " + count + " of " + dest.length);
+		}
+		for (int k = 0; k < count; k++) {
+			derange(dest, offset + k * CipherMap.ALPHABET_SIZE);
+		}
+	}
+
+	/**
+	 * The following function writes a uniform derangement of the alphabet at
+	 * the passed in offset.
+	 *
+	 * @param key is a char array with room for 26 chars at offset.
+	 * @param offset is the int index of the encryption of 'A'.
+	 */
+	private void derange(char[] key, int offset) {
+		int last = CipherMap.ALPHABET_SIZE - 1;
+		int i = last;
+		while (i >= 0) {
+			if (i == last) {
+				for (int j = 0; j <= last; j++) {
+					key[offset + j] = (char) ('A' + j);
+				}
+			}
+			//place a random letter of the ones left at i
+			int j = i == 0 ? 0 : random.nextInt(i + 1);
+			char letter = key[offset + j];
+			key[offset + j] = key[offset + i];
+			key[offset + i] = letter;
+			if (letter == 'A' + i) {
+				//a letter on itself, start over
+				i = last;
+			} else {
+				i--;
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class KeyGenerator.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see KeyGenerator
+ */
+public class KeyGeneratorTests {
+
+    /**
+     * Tests that keys are derangements and are made again from a seed.
+     */
+	@Test
+	void testKeyGenerator() {
+		KeyGenerator generator = new KeyGenerator(335);
+		int keys = 20000;
+		char[] dest = new char[keys * CipherMap.ALPHABET_SIZE];
+		generator.nextKeys(dest, 0, keys);
+
+		//test every key maps every letter to another letter once
+		int[] counts = new int[CipherMap.ALPHABET_SIZE];
+		for (int k = 0; k < keys; k++) {
+			boolean[] used = new boolean[CipherMap.ALPHABET_SIZE];
+			for (int i = 0; i < CipherMap.ALPHABET_SIZE; i++) {
+				char letter = dest[k * CipherMap.ALPHABET_SIZE + i];
+				assertNotEquals(letter, (char) ('A' + i));
+				assertFalse(used[letter - 'A']);
+				used[letter - 'A'] = true;
+			}
+			counts[dest[k * CipherMap.ALPHABET_SIZE] - 'A']++;
+		}
+		//test 'A' maps to each of the other 25 letters about as often
+		assertEquals(counts[0], 0);
+		for (int i = 1; i < CipherMap.ALPHABET_SIZE; i++) {
+			assertTrue(counts[i] > 650 && counts[i] < 950);
+		}
+
+		//test a seed makes the same keys
+		char[] again = new char[keys * CipherMap.ALPHABET_SIZE];
+		new KeyGenerator(335).nextKeys(again, 0, keys);
+		assertArrayEquals(again, dest);
+		CipherMap key = KeyGenerator.keyOf(42);
+		assertTrue(key.isFrozen());
+		assertEquals(key.size(), CipherMap.ALPHABET_SIZE);
+		assertEquals(KeyGenerator.keyOf(42).get('Q'), key.get('Q'));
+		assertThrows(IndexOutOfBoundsException.class, ()->{ generator.nextKeys(dest, 1, keys);});
+	}
+}
@@ -0,0 +1,170 @@
+import java.io.IOException;
+import java.util.Arrays;
+
+
+/**
+ * The following class represents a LineLayout, which is where the lines of a quote
+ * break when it is wrapped to a width.
+ *
+ * The following class finds the line breaks of a text once and keeps them as the
+ * offsets where each line starts and ends. The encrypted quote, the user's decryption
+ * and the answer all have their spaces in the same places, so one LineLayout wraps
+ * all three, and a line of any of them is drawn by copying its chars between the
+ * offsets. Words are split on single spaces. A word goes on a new line if the line's
+ * words, each counted with the space after it, would reach the width with it, and a
+ * word longer than the width gets a line of its own. A line is drawn with a space
+ * after its last word, and the spaces at the end of the text are dropped. A LineLayout
+ * can't be changed.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramController
+ */
+public class LineLayout {
+
+	private final int[] starts;
+	private final int[] ends;
+	private final int width;
+
+	/**
+	 * Constructor for LineLayout.
+	 *
+	 * @param starts is an int array of the offset of the first char of every line.
+	 * @param ends is an int array of the offset after the last word of every line.
+	 * @param width is the int width the lines were wrapped to.
+	 */
+	private LineLayout(int[] starts, int[] ends, int width) {
+		this.starts = starts;
+		this.ends = ends;
+		this.width = width;
+	}
+
+	/**
+	 * The following function finds the line breaks of the passed in text.
+	 *
+	 * @param text is a CharSequence to wrap.
+	 * @param width is the int width to wrap at.
+	 *
+	 * @return returns a LineLayout of the text.
+	 */
+	public static LineLayout of(CharSequence text, int width) {
+		//spaces at the end are dropped
+		int end = text.length();
+		while (end > 0 && text.charAt(end - 1) == ' ') {
+			end--;
+		}
+		int[] starts = new int[4];
+		int[] ends = new int[4];
+		int lines = 0;
+		int lineStart = 0;
+		int lineSize = 0;
+		int lastWordEnd = 0;
+		int pos = 0;
+		while (pos < end) {
+			int wordEnd = pos;
+			while (wordEnd < end && text.charAt(wordEnd) != ' ') {
+				wordEnd++;
+			}
+			int size = wordEnd - pos + 1;
+			if (lineSize > 0 && lineSize + size >= width) {
+				if (lines == starts.length) {
+					starts = Arrays.copyOf(starts, lines * 2);
+					ends = Arrays.copyOf(ends, lines * 2);
+				}
+				starts[lines] = lineStart;
+				ends[lines] = lastWordEnd;
+				lines++;
+				lineStart = pos;
+				lineSize = 0;
+			}
+			lineSize += size;
+			lastWordEnd = wordEnd;
+			pos = wordEnd + 1;
+		}
+		starts = Arrays.copyOf(starts, lines + 1);
+		ends = Arrays.copyOf(ends, lines + 1);
+		starts[lines] = lineStart;
+		ends[lines] = lastWordEnd;
+		return new LineLayout(starts, ends, width);
+	}
+
+	/**
+	 * @return returns the int width the lines were wrapped to.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return returns the int number of lines, at least one.
+	 */
+	public int lineCount() {
+		return starts.length;
+	}
+
+	/**
+	 * @param line is an int index of a line.
+	 *
+	 * @return returns the int offset of the first char of the line.
+	 */
+	public int lineStart(int line) {
+		return starts[line];
+	}
+
+	/**
+	 * @param line is an int index of a line.
+	 *
+	 * @return returns the int offset after the last word of the line.
+	 */
+	public int lineEnd(int line) {
+		return ends[line];
+	}
+
+	/**
+	 * The following function writes a line of the passed in text, which has
+	 * its spaces in the same places as the text the layout was made from.
+	 *
+	 * The chars of the line are written, then a space.
+	 *
+	 * @param out is an Appendable to write to, such as a StringBuilder or a Writer.
+	 * @param text is a CharSequence with the same spaces as the wrapped text.
+	 * @param line is an int index of a line.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	public void writeLine(Appendable out, CharSequence text, int line) throws IOException {
+		out.append(text, starts[line], ends[line]).append(' ');
+	}
+
+	/**
+	 * The following function writes a line of the passed in text with every
+	 * char from replaced by the char to, one char at a time.
+	 *
+	 * @param out is an Appendable to write to, such as a StringBuilder or a Writer.
+	 * @param text is a CharSequence with the same spaces as the wrapped text.
+	 * @param line is an int index of a line.
+	 * @param from is a char to replace.
+	 * @param to is a char to replace it with.
+	 *
+	 * @throws IOException if out throws.
+	 */
+	public void writeLine(Appendable out, CharSequence text, int line, char from, char to) throws IOException {
+		for (int i = starts[line]; i < ends[line]; i++) {
+			char c = text.charAt(i);
+			out.append(c == from ? to : c);
+		}
+		out.append(' ');
+	}
+
+	/**
+	 * The following function returns a line of the passed in text.
+	 *
+	 * @param text is a CharSequence with the same spaces as the wrapped text.
+	 * @param line is an int index of a line.
+	 *
+	 * @return returns a String of the line followed by a space.
+	 */
+	public String line(CharSequence text, int line) {
+		return new StringBuilder(ends[line] - starts[line] + 1)
+				.append(text, starts[line], ends[line]).append(' ').toString();
+	}
+}
@@ -0,0 +1,52 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the line breaks found by LineLayout.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see LineLayout
+ */
+public class LineLayoutTests {
+
+    /**
+     * Tests the lines of a text wrapped at a width.
+     */
+	@Test
+	void testLineLayout() throws IOException {
+		String text = "ABC DE FGHI J KLMNOP";
+		LineLayout layout = LineLayout.of(text, 10);
+		assertEquals(layout.getWidth(), 10);
+
+		//test a word starts a new line when the line would reach the width
+		assertEquals(layout.lineCount(), 3);
+		assertEquals(layout.line(text, 0), "ABC DE ");
+		assertEquals(layout.line(text, 1), "FGHI J ");
+		assertEquals(layout.line(text, 2), "KLMNOP ");
+		assertEquals(layout.lineStart(1), 7);
+		assertEquals(layout.lineEnd(1), 13);
+
+		//test a text with the same spaces is drawn with the same lines
+		String other = "??? ?E ?G?? ? ??????";
+		StringBuilder str = new StringBuilder();
+		layout.writeLine(str, other, 0, '?', ' ');
+		layout.writeLine(str, other, 1);
+		assertEquals(str.toString(), "     E ?G?? ? ");
+
+		//test a word longer than the width gets a line of its own
+		text = "ABCDEFGHIJKL MN";
+		layout = LineLayout.of(text, 5);
+		assertEquals(layout.lineCount(), 2);
+		assertEquals(layout.line(text, 0), "ABCDEFGHIJKL ");
+		assertEquals(layout.line(text, 1), "MN ");
+
+		//test spaces at the end are dropped and an empty text has one line
+		assertEquals(LineLayout.of("AB CD  ", 80).lineCount(), 1);
+		assertEquals(LineLayout.of("AB CD  ", 80).line("AB CD  ", 0), "AB CD ");
+		assertEquals(LineLayout.of("", 80).lineCount(), 1);
+		assertEquals(LineLayout.of("", 80).line("", 0), " ");
+	}
+}
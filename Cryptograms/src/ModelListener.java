@@ -0,0 +1,21 @@
+/**
+ * The following interface represents a listener of the changes to a CryptogramModel.
+ *
+ * The following interface replaces java.util.Observer for CryptogramModel. A listener
+ * is sent a ReplacementEvent that says what changed, so a view only has to redraw the
+ * letters in the event instead of the whole puzzle.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramModel
+ * @see ReplacementEvent
+ */
+@FunctionalInterface
+public interface ModelListener {
+
+	/**
+	 * The following function is called after the user's decryption changes.
+	 *
+	 * @param event is a ReplacementEvent of the change.
+	 */
+	void modelChanged(ReplacementEvent event);
+}
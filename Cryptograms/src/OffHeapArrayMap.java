@@ -0,0 +1,889 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+
+/**
+ * The following class represents an OffHeapArrayMap, which is an ArrayMap that
+ * keeps its pairs outside of the Java heap.
+ *
+ * The following class represents a generic map that is laid out like an ArrayMap
+ * in hashed mode, but in one ByteBuffer instead of object arrays. The buffer has a
+ * header, then the pairs as fixed-width records in the order they were added, then
+ * an open addressing table of record indexes. Keys and values are written to and
+ * read from the records by a Codec, so no key or value objects are kept and the
+ * garbage collector has nothing to scan. The buffer is either direct memory or a
+ * file mapped with a FileChannel. A mapped map can be closed and opened again
+ * without adding the pairs again, since the table is saved in the file with the
+ * records. The hash of a key is taken from its encoded bytes so it is the same
+ * every time the file is opened.
+ *
+ * Removing a pair moves the last pair into its record, like removeUnordered in
+ * ArrayMap, so insertion order is only kept until a pair is removed. Null keys
+ * and values are not allowed. The whole buffer must fit in 2 GB. A key is encoded
+ * into a scratch buffer of the calling thread, so many threads can read the map at
+ * once, but like the other maps, changes must not happen at the same time as reads.
+ *
+ * @author Fernando Ruiz
+ * @see ArrayMap
+ *
+ * @param <K> generic type for keys
+ * @param <V> generic type for values
+ */
+public class OffHeapArrayMap<K, V> extends AbstractMap<K, V> implements Closeable {
+
+	private static final int MAGIC = 0x43414D50;
+	private static final int HEADER_SIZE = 20;
+	private static final int DEFAULT_SIZE = 16;
+	private static final float LOAD_FACTOR = 0.75f;
+	private final Codec<K> keyCodec;
+	private final Codec<V> valueCodec;
+	private final int keyWidth;
+	private final int recordWidth;
+	private final ThreadLocal<ByteBuffer> scratch;
+	private final FileChannel channel;
+	private ByteBuffer buffer;
+	private int capacity;
+	private int tableOffset;
+	private int tableLength;
+	private int pairs;
+	private Set<Entry<K, V>> entryView;
+
+	/**
+	 * Constructor for OffHeapArrayMap.
+	 *
+	 * The constructor assigns a direct ByteBuffer with room for a
+	 * default number of pairs. Pairs, which represents the number
+	 * of mappings, is set to zero.
+	 *
+	 * @param keyCodec is a Codec that writes and reads the keys.
+	 * @param valueCodec is a Codec that writes and reads the values.
+	 */
+	public OffHeapArrayMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+		this(keyCodec, valueCodec, null);
+		layout(DEFAULT_SIZE);
+		this.buffer = ByteBuffer.allocateDirect(bufferSize(DEFAULT_SIZE));
+		writeHeader();
+	}
+
+	/**
+	 * Constructor for a file backed OffHeapArrayMap, used by the func. open.
+	 *
+	 * @param keyCodec is a Codec that writes and reads the keys.
+	 * @param valueCodec is a Codec that writes and reads the values.
+	 * @param channel is a FileChannel of the file, null for direct memory.
+	 */
+	private OffHeapArrayMap(Codec<K> keyCodec, Codec<V> valueCodec, FileChannel channel) {
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		this.keyWidth = keyCodec.width();
+		this.recordWidth = keyWidth + valueCodec.width();
+		int width = keyWidth;
+		this.scratch = ThreadLocal.withInitial(() -> ByteBuffer.allocate(width));
+		this.channel = channel;
+		this.pairs = 0;
+	}
+
+	/**
+	 * The following function returns an OffHeapArrayMap mapped to the passed
+	 * in file.
+	 *
+	 * If the file is empty or does not exist a new map is made in it. If not,
+	 * the map saved in the file is opened as it is, without adding its pairs
+	 * again. Changes are written to the file by the operating system, the func.
+	 * force writes them right away.
+	 *
+	 * @param file is a Path of the file for the map.
+	 * @param keyCodec is a Codec that writes and reads the keys.
+	 * @param valueCodec is a Codec that writes and reads the values.
+	 *
+	 * @throws IOException if the file can't be opened or is not a map with the codec widths.
+	 * @return returns an OffHeapArrayMap of the file.
+	 */
+	public static <K, V> OffHeapArrayMap<K, V> open(Path file, Codec<K> keyCodec,
+			Codec<V> valueCodec) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			OffHeapArrayMap<K, V> map = new OffHeapArrayMap<>(keyCodec, valueCodec, channel);
+			if (channel.size() == 0) {
+				map.layout(DEFAULT_SIZE);
+				map.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, map.bufferSize(DEFAULT_SIZE));
+				map.writeHeader();
+			} else {
+				map.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+				map.readHeader(file);
+			}
+			return map;
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * The following function returns the value the passed in key maps to.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the value of the key, if N/A returns null
+	 */
+	@Override
+	public V get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : valueAt(index);
+	}
+
+	/**
+	 * The following function returns a boolean based on whether the
+	 * passed in key is in the map.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns true if the key is in the map.
+	 */
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	/**
+	 * The following function returns the number of mappings in the map.
+	 *
+	 * @return returns an int that represents the size(pairs) of the map.
+	 */
+	@Override
+	public int size() {
+		return this.pairs;
+	}
+
+	/**
+	 * The following function adds the passed in key and value to the map.
+	 *
+	 * An existing key has its value written over with the passed in value.
+	 * The buffer is grown if the records are full.
+	 *
+	 * @param key represents a key of type K
+	 * @param value represents a value of type V
+	 *
+	 * @throws NullPointerException if key or value is null.
+	 * @throws IllegalArgumentException if the key or value can't be encoded by its codec.
+	 * @return returns existing key's previous value if N/A returns null
+	 */
+	@Override
+	public V put(K key, V value) {
+		Objects.requireNonNull(key);
+		Objects.requireNonNull(value);
+		if (!keyCodec.accepts(key) || !valueCodec.accepts(value)) {
+			throw new IllegalArgumentException("Can't encode: " + key + " " + value);
+		}
+		ByteBuffer encoded = encodeKey(key);
+		int hash = hashBytes(encoded, 0);
+		int slot = findSlot(encoded, hash);
+		if (slot >= 0) {
+			int index = slot(slot) - 1;
+			V oldVal = valueAt(index);
+			valueCodec.write(buffer, recordOffset(index) + keyWidth, value);
+			return oldVal;
+		}
+
+		//check size of records
+		if (pairs == capacity) {
+			grow();
+		}
+
+		//key doesn't exist add new record
+		int offset = recordOffset(pairs);
+		for (int i = 0; i < keyWidth; i++) {
+			buffer.put(offset + i, encoded.get(i));
+		}
+		valueCodec.write(buffer, offset + keyWidth, value);
+		setSlot(emptySlot(hash), pairs + 1);
+		setPairs(pairs + 1);
+		return null;
+	}
+
+	/**
+	 * The following function removes the pair of the passed in key from the map.
+	 *
+	 * The last record is moved into the removed record, so no other record moves.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the removed value of the key, if N/A returns null
+	 */
+	@Override
+	public V remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		V oldVal = valueAt(index);
+		removeAt(index);
+		return oldVal;
+	}
+
+	/**
+	 * The following function removes every pair from the map.
+	 *
+	 * The buffer is kept and only the table is cleared.
+	 */
+	@Override
+	public void clear() {
+		for (int slot = 0; slot < tableLength; slot++) {
+			setSlot(slot, 0);
+		}
+		setPairs(0);
+	}
+
+	/**
+	 * The following function returns a set of entry pairs.
+	 *
+	 * The following function returns an OffHeapArrayMapEntrySet, which is
+	 * a live view of the records in the map.
+	 *
+	 * @return returns an OffHeapArrayMapEntrySet of key value pairs in the map.
+	 */
+	@Override
+	public Set<Entry<K, V>> entrySet() {
+		if (entryView == null) {
+			entryView = new OffHeapArrayMapEntrySet();
+		}
+		return entryView;
+	}
+
+	/**
+	 * The following function writes the changes of a file backed map to
+	 * the file. Does nothing for a direct memory map.
+	 */
+	public void force() {
+		if (buffer instanceof MappedByteBuffer) {
+			((MappedByteBuffer) buffer).force();
+		}
+	}
+
+	/**
+	 * The following function writes the changes of a file backed map to the
+	 * file and closes it. The map can't be used after it is closed.
+	 *
+	 * @throws IOException if the file can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			force();
+			channel.close();
+		}
+	}
+
+	/**
+	 * The following function returns the index of the record of the passed
+	 * in key.
+	 *
+	 * The key is written into the calling thread's scratch buffer and the table is
+	 * probed from the hash of its bytes until a record with the same bytes or an empty slot is found.
+	 *
+	 * @param key is an Object that may be a key in the map.
+	 *
+	 * @return returns the index of the key, if N/A returns -1
+	 */
+	@SuppressWarnings("unchecked")
+	private int indexOf(Object key) {
+		if (key == null || !keyCodec.accepts(key)) {
+			return -1;
+		}
+		ByteBuffer encoded = encodeKey((K) key);
+		int slot = findSlot(encoded, hashBytes(encoded, 0));
+		return slot < 0 ? -1 : slot(slot) - 1;
+	}
+
+	/**
+	 * The following function writes the passed in key into the scratch buffer
+	 * of the calling thread, so lookups from many threads don't share one buffer.
+	 *
+	 * @param key represents a key of type K
+	 *
+	 * @return returns the ByteBuffer the key was written to.
+	 */
+	private ByteBuffer encodeKey(K key) {
+		ByteBuffer encoded = scratch.get();
+		keyCodec.write(encoded, 0, key);
+		return encoded;
+	}
+
+	/**
+	 * The following function returns the table slot of the encoded key.
+	 *
+	 * @param encoded is a ByteBuffer of the key bytes.
+	 * @param hash is an int hash of the key bytes.
+	 *
+	 * @return returns the slot of the key, if N/A returns -1
+	 */
+	private int findSlot(ByteBuffer encoded, int hash) {
+		int mask = tableLength - 1;
+		for (int slot = hash & mask; slot(slot) != 0; slot = (slot + 1) & mask) {
+			if (keyMatches(encoded, slot(slot) - 1)) {
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * The following function returns the first empty table slot from the
+	 * passed in hash.
+	 *
+	 * @param hash is an int hash of a key not in the table.
+	 *
+	 * @return returns an int that is an empty slot in the table.
+	 */
+	private int emptySlot(int hash) {
+		int mask = tableLength - 1;
+		int slot = hash & mask;
+		while (slot(slot) != 0) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * The following function returns a boolean based on whether the encoded key
+	 * bytes are the same as the key bytes of the record at the index.
+	 *
+	 * @param encoded is a ByteBuffer of the key bytes.
+	 * @param index is an int index of a record.
+	 *
+	 * @return returns true if the keys are the same.
+	 */
+	private boolean keyMatches(ByteBuffer encoded, int index) {
+		int offset = recordOffset(index);
+		int i = 0;
+		for (; i + 8 <= keyWidth; i += 8) {
+			if (buffer.getLong(offset + i) != encoded.getLong(i)) {
+				return false;
+			}
+		}
+		for (; i < keyWidth; i++) {
+			if (buffer.get(offset + i) != encoded.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The following function removes the record at the passed in index.
+	 *
+	 * The key's slot is emptied and the slots after it in the same probe run
+	 * are shifted back into the hole when their hash allows it. The last record
+	 * is then copied into the index and its slot is pointed at the index.
+	 *
+	 * @param index is an int index of a record.
+	 */
+	private void removeAt(int index) {
+		int last = pairs - 1;
+		int mask = tableLength - 1;
+		//find and empty the slot of the removed record
+		int hole = hashRecord(index) & mask;
+		while (slot(hole) != index + 1) {
+			hole = (hole + 1) & mask;
+		}
+		for (int next = (hole + 1) & mask; slot(next) != 0; next = (next + 1) & mask) {
+			int home = hashRecord(slot(next) - 1) & mask;
+			//move back if the hole is between the key's hash and its slot
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				setSlot(hole, slot(next));
+				hole = next;
+			}
+		}
+		setSlot(hole, 0);
+
+		//move the last record into the removed one
+		if (index != last) {
+			int slot = hashRecord(last) & mask;
+			while (slot(slot) != last + 1) {
+				slot = (slot + 1) & mask;
+			}
+			setSlot(slot, index + 1);
+			int from = recordOffset(last);
+			int to = recordOffset(index);
+			for (int i = 0; i < recordWidth; i++) {
+				buffer.put(to + i, buffer.get(from + i));
+			}
+		}
+		setPairs(last);
+	}
+
+	/**
+	 * The following function doubles the room for records.
+	 *
+	 * A new direct buffer, or a bigger mapping of the file, is made and the
+	 * records keep their offsets. The table is moved after the new records
+	 * and rebuilt from them.
+	 */
+	private void grow() {
+		long size = HEADER_SIZE + (long) capacity * 2 * recordWidth
+				+ 4L * tableSizeFor(capacity * 2);
+		if (capacity * 2 < 0 || size > Integer.MAX_VALUE) {
+			throw new IllegalStateException("OffHeapArrayMap is full");
+		}
+		ByteBuffer oldBuffer = this.buffer;
+		layout(capacity * 2);
+		if (channel != null) {
+			try {
+				this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			} catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		} else {
+			this.buffer = ByteBuffer.allocateDirect((int) size);
+			for (int i = 0; i < HEADER_SIZE + pairs * recordWidth; i++) {
+				buffer.put(i, oldBuffer.get(i));
+			}
+		}
+		writeHeader();
+		for (int slot = 0; slot < tableLength; slot++) {
+			setSlot(slot, 0);
+		}
+		for (int i = 0; i < pairs; i++) {
+			setSlot(emptySlot(hashRecord(i)), i + 1);
+		}
+	}
+
+	/**
+	 * The following function sets capacity and the table offset and length
+	 * for the passed in number of records.
+	 *
+	 * @param records is an int number of records.
+	 */
+	private void layout(int records) {
+		this.capacity = records;
+		this.tableOffset = HEADER_SIZE + records * recordWidth;
+		this.tableLength = tableSizeFor(records);
+	}
+
+	/**
+	 * The following function returns the size of a buffer for the passed in
+	 * number of records.
+	 *
+	 * @param records is an int number of records.
+	 *
+	 * @return returns an int number of bytes.
+	 */
+	private int bufferSize(int records) {
+		return HEADER_SIZE + records * recordWidth + 4 * tableSizeFor(records);
+	}
+
+	/**
+	 * The following function writes the header, which is the magic number,
+	 * the key and value widths, the capacity and the pairs.
+	 */
+	private void writeHeader() {
+		buffer.putInt(0, MAGIC);
+		buffer.putInt(4, keyWidth);
+		buffer.putInt(8, recordWidth - keyWidth);
+		buffer.putInt(12, capacity);
+		buffer.putInt(16, pairs);
+	}
+
+	/**
+	 * The following function reads the header of an opened file.
+	 *
+	 * @param file is the Path of the file, for the error message.
+	 *
+	 * @throws IOException if the file is not a map with the codec widths.
+	 */
+	private void readHeader(Path file) throws IOException {
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC
+				|| buffer.getInt(4) != keyWidth || buffer.getInt(8) != recordWidth - keyWidth) {
+			throw new IOException("Not an OffHeapArrayMap with these codecs: " + file);
+		}
+		layout(buffer.getInt(12));
+		this.pairs = buffer.getInt(16);
+		if (buffer.capacity() < bufferSize(capacity) || pairs < 0 || pairs > capacity) {
+			throw new IOException("OffHeapArrayMap file is cut off: " + file);
+		}
+	}
+
+	/**
+	 * The following function sets pairs and writes it to the header.
+	 *
+	 * @param pairs is an int number of pairs.
+	 */
+	private void setPairs(int pairs) {
+		this.pairs = pairs;
+		buffer.putInt(16, pairs);
+	}
+
+	/**
+	 * @param slot is an int slot of the table.
+	 *
+	 * @return returns the record index + 1 at the slot, 0 if empty.
+	 */
+	private int slot(int slot) {
+		return buffer.getInt(tableOffset + 4 * slot);
+	}
+
+	/**
+	 * @param slot is an int slot of the table.
+	 * @param value is the record index + 1 to set, 0 to empty it.
+	 */
+	private void setSlot(int slot, int value) {
+		buffer.putInt(tableOffset + 4 * slot, value);
+	}
+
+	/**
+	 * @param index is an int index of a record.
+	 *
+	 * @return returns the byte offset of the record in the buffer.
+	 */
+	private int recordOffset(int index) {
+		return HEADER_SIZE + index * recordWidth;
+	}
+
+	/**
+	 * @param index is an int index of a record.
+	 *
+	 * @return returns the key of the record.
+	 */
+	private K keyAt(int index) {
+		return keyCodec.read(buffer, recordOffset(index));
+	}
+
+	/**
+	 * @param index is an int index of a record.
+	 *
+	 * @return returns the value of the record.
+	 */
+	private V valueAt(int index) {
+		return valueCodec.read(buffer, recordOffset(index) + keyWidth);
+	}
+
+	/**
+	 * @param index is an int index of a record.
+	 *
+	 * @return returns the hash of the key bytes of the record.
+	 */
+	private int hashRecord(int index) {
+		return hashBytes(buffer, recordOffset(index));
+	}
+
+	/**
+	 * The following function returns an FNV-1a hash of the key bytes at the
+	 * passed in offset, with the high bits spread into the low bits.
+	 *
+	 * @param buf is a ByteBuffer with a key.
+	 * @param offset is an int offset of the key.
+	 *
+	 * @return returns an int hash of the key bytes.
+	 */
+	private int hashBytes(ByteBuffer buf, int offset) {
+		int h = 0x811C9DC5;
+		for (int i = 0; i < keyWidth; i++) {
+			h = (h ^ buf.get(offset + i)) * 0x01000193;
+		}
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * The following function returns the table length needed to hold
+	 * the passed in capacity of records under the load factor.
+	 *
+	 * @param capacity is an int number of records.
+	 *
+	 * @return returns an int power of two.
+	 */
+	private static int tableSizeFor(int capacity) {
+		int needed = (int) Math.ceil(capacity / LOAD_FACTOR);
+		int length = 1;
+		while (length < needed) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	/**
+	 * The following interface represents a fixed-width encoding of a type
+	 * for the records of an OffHeapArrayMap.
+	 *
+	 * Equal objects must be written as the same bytes. The interface has
+	 * codecs for int, long and ASCII strings.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 * @param <T> the type that is encoded.
+	 */
+	public interface Codec<T> {
+
+		/**
+		 * @return returns the int number of bytes every encoded object takes.
+		 */
+		int width();
+
+		/**
+		 * The following function writes the passed in object at the offset.
+		 * The object has been checked with the func. accepts.
+		 *
+		 * @param buf is the ByteBuffer to write to.
+		 * @param offset is an int offset in the buffer.
+		 * @param value is the object of type T to write.
+		 */
+		void write(ByteBuffer buf, int offset, T value);
+
+		/**
+		 * The following function reads an object at the offset.
+		 *
+		 * @param buf is the ByteBuffer to read from.
+		 * @param offset is an int offset in the buffer.
+		 *
+		 * @return returns the object of type T.
+		 */
+		T read(ByteBuffer buf, int offset);
+
+		/**
+		 * The following function returns a boolean based on whether the
+		 * passed in object can be written by the codec. A lookup of an object
+		 * that is not accepted is a miss and a put of it is an error.
+		 *
+		 * @param o is an Object.
+		 *
+		 * @return returns true if the object can be encoded.
+		 */
+		boolean accepts(Object o);
+
+		/**
+		 * @return returns a 4 byte Codec for Integer.
+		 */
+		static Codec<Integer> ofInt() {
+			return new Codec<Integer>() {
+				@Override
+				public int width() {
+					return 4;
+				}
+
+				@Override
+				public void write(ByteBuffer buf, int offset, Integer value) {
+					buf.putInt(offset, value);
+				}
+
+				@Override
+				public Integer read(ByteBuffer buf, int offset) {
+					return buf.getInt(offset);
+				}
+
+				@Override
+				public boolean accepts(Object o) {
+					return o instanceof Integer;
+				}
+			};
+		}
+
+		/**
+		 * @return returns an 8 byte Codec for Long.
+		 */
+		static Codec<Long> ofLong() {
+			return new Codec<Long>() {
+				@Override
+				public int width() {
+					return 8;
+				}
+
+				@Override
+				public void write(ByteBuffer buf, int offset, Long value) {
+					buf.putLong(offset, value);
+				}
+
+				@Override
+				public Long read(ByteBuffer buf, int offset) {
+					return buf.getLong(offset);
+				}
+
+				@Override
+				public boolean accepts(Object o) {
+					return o instanceof Long;
+				}
+			};
+		}
+
+		/**
+		 * The following function returns a Codec for strings of at most the
+		 * passed in length of ASCII chars. Shorter strings are padded with
+		 * zero bytes, so strings can't have the char '\0'.
+		 *
+		 * @param length is an int max length of a string.
+		 *
+		 * @return returns a Codec for String.
+		 */
+		static Codec<String> ofAscii(int length) {
+			return new Codec<String>() {
+				@Override
+				public int width() {
+					return length;
+				}
+
+				@Override
+				public void write(ByteBuffer buf, int offset, String value) {
+					for (int i = 0; i < length; i++) {
+						buf.put(offset + i, i < value.length() ? (byte) value.charAt(i) : 0);
+					}
+				}
+
+				@Override
+				public String read(ByteBuffer buf, int offset) {
+					char[] chars = new char[length];
+					int i = 0;
+					for (; i < length && buf.get(offset + i) != 0; i++) {
+						chars[i] = (char) buf.get(offset + i);
+					}
+					return new String(chars, 0, i);
+				}
+
+				@Override
+				public boolean accepts(Object o) {
+					if (!(o instanceof String) || ((String) o).length() > length) {
+						return false;
+					}
+					String str = (String) o;
+					for (int i = 0; i < str.length(); i++) {
+						if (str.charAt(i) == '\0' || str.charAt(i) > 127) {
+							return false;
+						}
+					}
+					return true;
+				}
+			};
+		}
+	}
+
+	/**
+	 * The following class represents an entry set for the OffHeapArrayMap.
+	 *
+	 * The set is a view of the records. The class extends AbstractSet and
+	 * overrides the methods size, contains, clear and iterator.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class OffHeapArrayMapEntrySet extends AbstractSet<Entry<K, V>> {
+
+		/**
+		 * @return returns int that represents the size of the entrySet
+		 */
+		@Override
+		public int size() {
+			return pairs;
+		}
+
+		/**
+		 * The following function returns true if the passed in object is an
+		 * entry whose key maps to its value in the map.
+		 *
+		 * @param o is an Object that may exist in the entry set.
+		 *
+		 * @return returns a boolean based on if the object is in the entrySet
+		 */
+		@Override
+		public boolean contains(Object o) {
+			if (o instanceof Entry) {
+				Entry<?, ?> entry = (Entry<?, ?>) o;
+				int index = indexOf(entry.getKey());
+				return index >= 0 && valueAt(index).equals(entry.getValue());
+			}
+			return false;
+		}
+
+		/**
+		 * The following function removes every pair from the map.
+		 */
+		@Override
+		public void clear() {
+			OffHeapArrayMap.this.clear();
+		}
+
+		/**
+		 * @return returns an iterator over the records.
+		 */
+		@Override
+		public Iterator<Entry<K, V>> iterator() {
+			return new OffHeapArrayMapIterator();
+		}
+	}
+
+	/**
+	 * The following class represents an iterator over the records of an
+	 * OffHeapArrayMap.
+	 *
+	 * The entries are decoded from the record when next is called, and
+	 * setValue writes the new value into the record.
+	 *
+	 * @author Fernando Ruiz
+	 *
+	 */
+	private class OffHeapArrayMapIterator implements Iterator<Entry<K, V>> {
+
+		private int index;
+		private boolean nextCall;
+		private boolean removeCall;
+
+		/**
+		 * @return returns a boolean based on whether there is a next record.
+		 */
+		@Override
+		public boolean hasNext() {
+			return index < pairs;
+		}
+
+		/**
+		 * The following function returns an entry of the next record.
+		 *
+		 * @throws NoSuchElementException if there is no next record.
+		 * @return returns the next entry.
+		 */
+		@Override
+		public Entry<K, V> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			this.nextCall = true;
+			this.removeCall = false;
+			int record = index;
+			this.index++;
+			return new SimpleEntry<K, V>(keyAt(record), valueAt(record)) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public V setValue(V value) {
+					put(getKey(), value);
+					return super.setValue(value);
+				}
+			};
+		}
+
+		/**
+		 * The following function removes the last record returned by next.
+		 * The last record is moved into it, so it is returned next.
+		 *
+		 * @throws IllegalStateException if the next method has not yet been called, or the remove
+		 * method has already been called after the last call to the next method.
+		 */
+		@Override
+		public void remove() {
+			if (this.nextCall == false || this.removeCall == true) {
+				throw new IllegalStateException();
+			}
+			this.index--;
+			removeAt(index);
+			this.removeCall = true;
+		}
+	}
+}
@@ -0,0 +1,90 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map.Entry;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class OffHeapArrayMap.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see OffHeapArrayMap
+ */
+public class OffHeapArrayMapTests {
+
+    /**
+     * Tests OffHeapArrayMap Methods in direct memory.
+     */
+	@Test
+	void testOffHeapArrayMap() {
+		OffHeapArrayMap<String, Integer> map = new OffHeapArrayMap<>(
+				OffHeapArrayMap.Codec.ofAscii(8), OffHeapArrayMap.Codec.ofInt());
+
+		//test put past several grows
+		for (int i = 0; i < 1000; i++) {
+			assertNull(map.put("Test" + i, i));
+		}
+		assertEquals(map.put("Test0", -1), 0);
+		assertEquals(map.size(), 1000);
+		assertEquals(map.get("Test999"), 999);
+		assertNull(map.get("N/A"));
+		//keys that can't be encoded are a miss for get and an error for put
+		assertNull(map.get("TooLongForTheCodec"));
+		assertThrows(IllegalArgumentException.class, ()->{ map.put("TooLongForTheCodec", 1);});
+
+		//test remove moves the last pair into the hole
+		assertEquals(map.remove("Test0"), -1);
+		assertNull(map.remove("Test0"));
+		assertEquals(map.size(), 999);
+		assertEquals(map.entrySet().iterator().next().getKey(), "Test999");
+
+		//test setValue and iterator remove
+		Iterator<Entry<String, Integer>> iter = map.entrySet().iterator();
+		while (iter.hasNext()) {
+			Entry<String, Integer> entry = iter.next();
+			if (entry.getValue() % 2 == 0) {
+				iter.remove();
+			} else {
+				entry.setValue(0);
+			}
+		}
+		assertEquals(map.size(), 500);
+		assertEquals(map.get("Test1"), 0);
+		assertFalse(map.containsKey("Test2"));
+	}
+
+    /**
+     * Tests that a file backed OffHeapArrayMap can be opened again.
+     */
+	@Test
+	void testOpen() throws IOException {
+		Path file = Files.createTempFile("OffHeapArrayMapTests", ".map");
+		Files.delete(file);
+		try {
+			try (OffHeapArrayMap<Long, Long> map = OffHeapArrayMap.open(file,
+					OffHeapArrayMap.Codec.ofLong(), OffHeapArrayMap.Codec.ofLong())) {
+				for (long i = 0; i < 10000; i++) {
+					map.put(i, i * i);
+				}
+				map.remove(7L);
+			}
+
+			try (OffHeapArrayMap<Long, Long> map = OffHeapArrayMap.open(file,
+					OffHeapArrayMap.Codec.ofLong(), OffHeapArrayMap.Codec.ofLong())) {
+				assertEquals(map.size(), 9999);
+				assertEquals(map.get(100L), 10000L);
+				assertFalse(map.containsKey(7L));
+			}
+
+			//test a file of other codecs is not opened
+			assertThrows(IOException.class, ()->{ OffHeapArrayMap.open(file,
+					OffHeapArrayMap.Codec.ofInt(), OffHeapArrayMap.Codec.ofLong());});
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
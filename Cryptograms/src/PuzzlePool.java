@@ -0,0 +1,156 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+
+/**
+ * The following class represents a PuzzlePool, which keeps puzzles ready
+ * before they are asked for.
+ *
+ * The following class has a bounded queue of CryptogramModels that a background
+ * thread fills. Choosing a quote, making a key and encrypting are done on that
+ * thread, so taking a puzzle is a poll of the queue. The thread makes a new puzzle
+ * as soon as one is taken and waits while the queue is full. If the queue is empty
+ * when a puzzle is taken, the puzzle is made on the calling thread instead. The pool
+ * counts hits, puzzles taken from the queue, and misses, puzzles made by the caller.
+ * The thread is a daemon so a pool does not keep the program running. If making a
+ * puzzle throws on the background thread, the failure is counted and the thread goes
+ * on to the next puzzle, waiting a moment first so a factory that always fails does
+ * not keep a core busy. A take that misses makes its puzzle on the calling thread,
+ * so if the factory still fails the caller sees the error.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramModel
+ * @see CryptogramController
+ */
+public class PuzzlePool implements AutoCloseable {
+
+	private static final int DEFAULT_CAPACITY = 4;
+	private static final long FAILURE_DELAY_MS = 100;
+	private static PuzzlePool shared;
+	private final BlockingQueue<CryptogramModel> ready;
+	private final Supplier<CryptogramModel> factory;
+	private final Thread producer;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong failures;
+
+	/**
+	 * Constructor for PuzzlePool of new random puzzles.
+	 *
+	 * @param capacity is the int number of puzzles to keep ready.
+	 */
+	public PuzzlePool(int capacity) {
+		this(capacity, CryptogramModel::new);
+	}
+
+	/**
+	 * Constructor for PuzzlePool of the puzzles made by the passed in factory.
+	 *
+	 * The background thread is started and begins making puzzles.
+	 *
+	 * @param capacity is the int number of puzzles to keep ready.
+	 * @param factory is a Supplier of new CryptogramModels, called on the background thread.
+	 *
+	 * @throws IllegalArgumentException if capacity is less than 1.
+	 */
+	public PuzzlePool(int capacity, Supplier<CryptogramModel> factory) {
+		this.ready = new ArrayBlockingQueue<>(capacity);
+		this.factory = factory;
+		this.hits = new AtomicLong();
+		this.misses = new AtomicLong();
+		this.failures = new AtomicLong();
+		this.producer = new Thread(this::produce, "PuzzlePool");
+		producer.setDaemon(true);
+		producer.start();
+	}
+
+	/**
+	 * The following function returns the PuzzlePool shared by the game,
+	 * starting it on the first call.
+	 *
+	 * @return returns the shared PuzzlePool.
+	 */
+	public static synchronized PuzzlePool shared() {
+		if (shared == null) {
+			shared = new PuzzlePool(DEFAULT_CAPACITY);
+		}
+		return shared;
+	}
+
+	/**
+	 * The following function makes puzzles on the background thread until
+	 * the pool is closed. A puzzle that fails to be made is counted and skipped.
+	 */
+	private void produce() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				CryptogramModel puzzle;
+				try {
+					puzzle = factory.get();
+				} catch (RuntimeException e) {
+					failures.incrementAndGet();
+					Thread.sleep(FAILURE_DELAY_MS);
+					continue;
+				}
+				ready.put(puzzle);
+			}
+		} catch (InterruptedException e) {
+			//the pool was closed
+		}
+	}
+
+	/**
+	 * The following function returns a ready puzzle, or makes one if none
+	 * are ready.
+	 *
+	 * @return returns a new CryptogramModel.
+	 */
+	public CryptogramModel take() {
+		CryptogramModel puzzle = ready.poll();
+		if (puzzle != null) {
+			hits.incrementAndGet();
+			return puzzle;
+		}
+		misses.incrementAndGet();
+		return factory.get();
+	}
+
+	/**
+	 * @return returns the long number of puzzles taken from the queue.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return returns the long number of puzzles made because none were ready.
+	 */
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * @return returns the long number of puzzles the background thread failed to make.
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * @return returns the int number of puzzles ready now.
+	 */
+	public int readyCount() {
+		return ready.size();
+	}
+
+	/**
+	 * The following function stops the background thread. Puzzles that are
+	 * ready can still be taken, and after them every take is a miss.
+	 */
+	@Override
+	public void close() {
+		producer.interrupt();
+	}
+}
@@ -0,0 +1,62 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class PuzzlePool.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see PuzzlePool
+ */
+public class PuzzlePoolTests {
+
+    /**
+     * Tests PuzzlePool Methods.
+     */
+	@Test
+	void testPuzzlePool() throws InterruptedException {
+		AtomicLong seeds = new AtomicLong();
+		try (PuzzlePool pool = new PuzzlePool(3, ()-> new CryptogramModel("Test quote", seeds.incrementAndGet()))) {
+			//wait for the background thread to fill the pool
+			for (int i = 0; i < 100 && pool.readyCount() < 3; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(pool.readyCount(), 3);
+
+			//test ready puzzles are hits and come in the order they were made
+			assertEquals(pool.take().getKeySeed(), 1L);
+			assertEquals(pool.take().getKeySeed(), 2L);
+			assertEquals(pool.getHits(), 2L);
+			assertEquals(pool.getMisses(), 0L);
+			assertEquals(pool.take().getAnswer(), "TEST QUOTE");
+		}
+
+		//test a closed and empty pool makes puzzles on the caller's thread
+		PuzzlePool empty = new PuzzlePool(1, ()-> new CryptogramModel("Other", 7));
+		empty.close();
+		for (int i = 0; i < 5; i++) {
+			assertNotNull(empty.take());
+		}
+		assertEquals(empty.getHits() + empty.getMisses(), 5L);
+		assertTrue(empty.getMisses() >= 4);
+
+		//test a puzzle that fails to be made is counted and the pool keeps making puzzles
+		AtomicLong calls = new AtomicLong();
+		try (PuzzlePool flaky = new PuzzlePool(2, ()-> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("bad quote");
+			}
+			return new CryptogramModel("Flaky", calls.get());
+		})) {
+			for (int i = 0; i < 100 && flaky.readyCount() < 2; i++) {
+				Thread.sleep(10);
+			}
+			assertEquals(flaky.getFailures(), 1L);
+			assertEquals(flaky.readyCount(), 2);
+			assertEquals(flaky.take().getKeySeed(), 2L);
+			assertEquals(flaky.getMisses(), 0L);
+		}
+	}
+}
@@ -0,0 +1,480 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * The following class represents a QuoteStore, which serves the quotes of a
+ * corpus file, one quote per line, without reading the whole file.
+ *
+ * The following class memory-maps the corpus once and keeps an index of where
+ * every non-blank line starts and ends. A quote is read by looking up its offsets
+ * in the index and decoding only its bytes, so the time to get a random quote does
+ * not grow with the corpus. The index is saved next to the corpus with the suffix
+ * .idx, with the size and last modified time of the corpus it was built from, and
+ * it is loaded instead of rebuilt when the corpus is opened again and has not
+ * changed. The index file is mapped too, so a corpus of millions of quotes does
+ * not put its index on the heap. If the index can't be saved it is kept in memory.
+ * A corpus bigger than 2 GB can't be mapped, so its quotes are read from the file
+ * channel at their offsets instead. Lines are UTF-8 and may end with \r\n.
+ *
+ * A QuoteStore can be read by many threads at once. The static function sample
+ * picks a quote in one pass over a corpus without opening a QuoteStore.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramModel
+ */
+public class QuoteStore implements Closeable {
+
+	private static final int MAGIC = 0x51554F54;
+	private static final int HEADER_SIZE = 24;
+	private static final int ENTRY_SIZE = 16;
+	private static final int READ_SIZE = 1 << 16;
+	private final FileChannel channel;
+	private final ByteBuffer corpus;
+	private final ByteBuffer index;
+	private final int quotes;
+
+	/**
+	 * Constructor for QuoteStore.
+	 *
+	 * @param channel is an open FileChannel of the corpus.
+	 * @param corpus is the mapped corpus, null if it is too big to map.
+	 * @param index is a ByteBuffer of the index, including its header.
+	 */
+	private QuoteStore(FileChannel channel, ByteBuffer corpus, ByteBuffer index) {
+		this.channel = channel;
+		this.corpus = corpus;
+		this.index = index;
+		this.quotes = index.getInt(4);
+	}
+
+	/**
+	 * The following function opens the passed in corpus, loading its saved index
+	 * or building and saving one if there is none or the corpus has changed.
+	 *
+	 * @param file is a Path of a corpus with one quote per line.
+	 *
+	 * @throws IOException if the corpus can't be read.
+	 * @return returns a QuoteStore of the corpus.
+	 */
+	public static QuoteStore open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			long size = channel.size();
+			long modified = Files.getLastModifiedTime(file).toMillis();
+			ByteBuffer corpus = null;
+			if (size <= Integer.MAX_VALUE) {
+				corpus = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			}
+			Path indexFile = file.resolveSibling(file.getFileName() + ".idx");
+			ByteBuffer index = loadIndex(indexFile, size, modified);
+			if (index == null) {
+				index = buildIndex(channel, size, modified);
+				index = saveIndex(indexFile, index);
+			}
+			return new QuoteStore(channel, corpus, index);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * The following function maps the passed in index file if it was built
+	 * from a corpus of the passed in size and last modified time.
+	 *
+	 * @param indexFile is a Path of a saved index that may not exist.
+	 * @param size is the long size of the corpus in bytes.
+	 * @param modified is the long last modified time of the corpus.
+	 *
+	 * @return returns a ByteBuffer of the index, if N/A or out of date returns null
+	 */
+	private static ByteBuffer loadIndex(Path indexFile, long size, long modified) {
+		if (!Files.isRegularFile(indexFile)) {
+			return null;
+		}
+		try (FileChannel indexChannel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			long length = indexChannel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE) {
+				return null;
+			}
+			ByteBuffer index = indexChannel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			index.order(ByteOrder.nativeOrder());
+			boolean valid = index.getInt(0) == MAGIC && index.getLong(8) == size
+					&& index.getLong(16) == modified
+					&& length == HEADER_SIZE + (long) index.getInt(4) * ENTRY_SIZE;
+			return valid ? index : null;
+		} catch (IOException e) {
+			//a broken index is rebuilt
+			return null;
+		}
+	}
+
+	/**
+	 * The following function builds an index of the non-blank lines of the corpus
+	 * by reading it once in blocks.
+	 *
+	 * @param channel is an open FileChannel of the corpus.
+	 * @param size is the long size of the corpus in bytes.
+	 * @param modified is the long last modified time of the corpus.
+	 *
+	 * @throws IOException if the corpus can't be read.
+	 * @return returns a ByteBuffer of the index, including its header.
+	 */
+	private static ByteBuffer buildIndex(FileChannel channel, long size, long modified)
+			throws IOException {
+		ByteBuffer index = ByteBuffer.allocate(HEADER_SIZE + 64 * ENTRY_SIZE)
+				.order(ByteOrder.nativeOrder());
+		index.position(HEADER_SIZE);
+		ByteBuffer block = ByteBuffer.allocateDirect(READ_SIZE);
+		long start = 0;
+		long position = 0;
+		byte prev = 0;
+		while (position < size) {
+			block.clear();
+			int read = channel.read(block, position);
+			if (read < 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				byte b = block.get(i);
+				if (b == '\n') {
+					long end = position + i;
+					index = addLine(index, start, prev == '\r' ? end - 1 : end);
+					start = end + 1;
+				}
+				prev = b;
+			}
+			position += read;
+		}
+		//the last line may have no \n
+		index = addLine(index, start, prev == '\r' ? position - 1 : position);
+		index.putInt(0, MAGIC);
+		index.putInt(4, (index.position() - HEADER_SIZE) / ENTRY_SIZE);
+		index.putLong(8, size);
+		index.putLong(16, modified);
+		index.flip();
+		return index;
+	}
+
+	/**
+	 * The following function adds the offsets of a line to the index if the
+	 * line is not blank, growing the index if it is full.
+	 *
+	 * @param index is a ByteBuffer of the index positioned after its last line.
+	 * @param start is the long offset of the first byte of the line.
+	 * @param end is the long offset after the last byte of the line.
+	 *
+	 * @return returns the ByteBuffer of the index, which may be a new buffer.
+	 */
+	private static ByteBuffer addLine(ByteBuffer index, long start, long end) {
+		if (end <= start) {
+			return index;
+		}
+		if (index.remaining() < ENTRY_SIZE) {
+			ByteBuffer bigger = ByteBuffer.allocate(index.capacity() * 2)
+					.order(ByteOrder.nativeOrder());
+			index.flip();
+			bigger.put(index);
+			index = bigger;
+		}
+		index.putLong(start);
+		index.putLong(end);
+		return index;
+	}
+
+	/**
+	 * The following function saves the passed in index next to the corpus and
+	 * maps it, so it is not kept on the heap.
+	 *
+	 * The index is written to a temporary file first and moved into place, so
+	 * another reader never sees half an index.
+	 *
+	 * @param indexFile is the Path to save the index to.
+	 * @param index is a ByteBuffer of a built index.
+	 *
+	 * @return returns a ByteBuffer of the mapped index, if it can't be saved
+	 * returns the passed in index
+	 */
+	private static ByteBuffer saveIndex(Path indexFile, ByteBuffer index) {
+		Path temp = null;
+		try {
+			temp = Files.createTempFile(indexFile.toAbsolutePath().getParent(),
+					indexFile.getFileName().toString(), ".tmp");
+			try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+				ByteBuffer data = index.duplicate();
+				while (data.hasRemaining()) {
+					out.write(data);
+				}
+			}
+			Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			temp = null;
+			try (FileChannel in = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+				return in.map(FileChannel.MapMode.READ_ONLY, 0, in.size())
+						.order(ByteOrder.nativeOrder());
+			}
+		} catch (IOException | UnsupportedOperationException e) {
+			//the corpus may be in a folder that can't be written
+			return index;
+		} finally {
+			if (temp != null) {
+				try {
+					Files.deleteIfExists(temp);
+				} catch (IOException e) {
+					//nothing else to clean up
+				}
+			}
+		}
+	}
+
+	/**
+	 * The following function returns the number of quotes in the corpus.
+	 *
+	 * @return returns an int that represents the number of non-blank lines.
+	 */
+	public int size() {
+		return quotes;
+	}
+
+	/**
+	 * The following function returns the quote at the passed in index.
+	 *
+	 * Only the bytes of the quote are read, at the offsets saved in the index.
+	 *
+	 * @param i is an int index of a quote, from 0 to size - 1.
+	 *
+	 * @throws IndexOutOfBoundsException if i is not the index of a quote.
+	 * @throws IOException if a corpus too big to map can't be read.
+	 * @return returns the String quote without its line ending.
+	 */
+	public String quote(int i) throws IOException {
+		if (i < 0 || i >= quotes) {
+			throw new IndexOutOfBoundsException("Quote " + i + " of " + quotes);
+		}
+		int entry = HEADER_SIZE + i * ENTRY_SIZE;
+		long start = index.getLong(entry);
+		long end = index.getLong(entry + 8);
+		byte[] bytes = new byte[(int) (end - start)];
+		if (corpus != null) {
+			//duplicate so threads do not share a position
+			ByteBuffer line = corpus.duplicate();
+			line.position((int) start);
+			line.get(bytes);
+		} else {
+			ByteBuffer line = ByteBuffer.wrap(bytes);
+			while (line.hasRemaining()) {
+				if (channel.read(line, start + line.position()) < 0) {
+					throw new IOException("Corpus is cut off at quote " + i);
+				}
+			}
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * The following function returns a random quote.
+	 *
+	 * @param random is a Random to pick the quote with.
+	 *
+	 * @throws IllegalStateException if the corpus has no quotes.
+	 * @throws IOException if a corpus too big to map can't be read.
+	 * @return returns a String quote picked uniformly.
+	 */
+	public String randomQuote(Random random) throws IOException {
+		if (quotes == 0) {
+			throw new IllegalStateException("Corpus has no quotes");
+		}
+		return quote(random.nextInt(quotes));
+	}
+
+	/**
+	 * The following function returns a random quote picked with the current
+	 * thread's random generator.
+	 *
+	 * @throws IllegalStateException if the corpus has no quotes.
+	 * @throws IOException if a corpus too big to map can't be read.
+	 * @return returns a String quote picked uniformly.
+	 */
+	public String randomQuote() throws IOException {
+		return randomQuote(ThreadLocalRandom.current());
+	}
+
+	/**
+	 * The following function closes the corpus file. The mapped buffers are
+	 * released when they are garbage collected.
+	 *
+	 * @throws IOException if the file can't be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/**
+	 * The following function picks a random quote from the passed in corpus that
+	 * passes the filter, reading the corpus once and keeping no index.
+	 *
+	 * The corpus is read through its file channel in blocks and the quotes are
+	 * sampled with a reservoir of one, so every quote that passes the filter is
+	 * equally likely and memory does not grow with the corpus. Only the offsets
+	 * of the quote picked so far are kept, and its bytes are read at the end.
+	 * This is for picking one quote from a corpus too big to index, or one that
+	 * is only used once, since every call reads the whole file.
+	 *
+	 * @param file is a Path of a corpus with one quote per line.
+	 * @param random is a Random to pick the quote with.
+	 * @param filter is a LineFilter a quote must pass.
+	 *
+	 * @throws IOException if the corpus can't be read.
+	 * @return returns a String quote, if no quote passes the filter returns null
+	 */
+	public static String sample(Path file, Random random, LineFilter filter) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer block = ByteBuffer.allocateDirect(READ_SIZE);
+			long seen = 0;
+			long chosenStart = -1;
+			int chosenLength = 0;
+			long start = 0;
+			long position = 0;
+			int letters = 0;
+			byte prev = 0;
+			while (true) {
+				block.clear();
+				int read = channel.read(block);
+				if (read <= 0) {
+					break;
+				}
+				for (int i = 0; i < read; i++) {
+					byte b = block.get(i);
+					if (b == '\n') {
+						long end = prev == '\r' ? position + i - 1 : position + i;
+						if (end > start && filter.accept((int) (end - start), Integer.bitCount(letters))) {
+							seen++;
+							//keep the quote with a chance of one over the quotes seen
+							if (pick(random, seen)) {
+								chosenStart = start;
+								chosenLength = (int) (end - start);
+							}
+						}
+						start = position + i + 1;
+						letters = 0;
+					} else {
+						int letter = (b | 0x20) - 'a';
+						if (letter >= 0 && letter < CipherMap.ALPHABET_SIZE) {
+							letters |= 1 << letter;
+						}
+					}
+					prev = b;
+				}
+				position += read;
+			}
+			//the last line may have no \n
+			long end = prev == '\r' ? position - 1 : position;
+			if (end > start && filter.accept((int) (end - start), Integer.bitCount(letters))) {
+				seen++;
+				if (pick(random, seen)) {
+					chosenStart = start;
+					chosenLength = (int) (end - start);
+				}
+			}
+			if (chosenStart < 0) {
+				return null;
+			}
+			ByteBuffer line = ByteBuffer.allocate(chosenLength);
+			while (line.hasRemaining()) {
+				if (channel.read(line, chosenStart + line.position()) < 0) {
+					throw new IOException("Corpus was cut off while sampling: " + file);
+				}
+			}
+			return new String(line.array(), StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * The following function returns true with a chance of one over the
+	 * passed in count.
+	 *
+	 * @param random is a Random to pick with.
+	 * @param count is the long number of quotes seen, at least one.
+	 *
+	 * @return returns true if the newest quote replaces the one picked.
+	 */
+	private static boolean pick(Random random, long count) {
+		if (count <= Integer.MAX_VALUE) {
+			return random.nextInt((int) count) == 0;
+		}
+		return Math.floorMod(random.nextLong(), count) == 0;
+	}
+
+	/**
+	 * The following interface represents a filter of the quotes to sample.
+	 *
+	 * A quote is tested by its length in bytes, without its line ending, and
+	 * by the number of different letters in it, which is how many letters the
+	 * player has to find, so it is a measure of difficulty. Both are counted
+	 * while the corpus is read, so no quote is decoded to be tested.
+	 *
+	 * @author Fernando Ruiz
+	 */
+	@FunctionalInterface
+	public interface LineFilter {
+
+		/**
+		 * The following function returns a boolean based on whether a quote
+		 * can be sampled.
+		 *
+		 * @param length is the int length of the quote in bytes.
+		 * @param letters is the int number of different letters, from 0 to 26.
+		 *
+		 * @return returns true if the quote passes the filter.
+		 */
+		boolean accept(int length, int letters);
+
+		/**
+		 * @param other is a LineFilter a quote must also pass.
+		 *
+		 * @return returns a LineFilter that passes quotes both filters pass.
+		 */
+		default LineFilter and(LineFilter other) {
+			return (length, letters) -> accept(length, letters) && other.accept(length, letters);
+		}
+
+		/**
+		 * @return returns a LineFilter that passes every quote.
+		 */
+		static LineFilter any() {
+			return (length, letters) -> true;
+		}
+
+		/**
+		 * @param min is the int shortest length in bytes.
+		 * @param max is the int longest length in bytes.
+		 *
+		 * @return returns a LineFilter of quotes from min to max bytes long.
+		 */
+		static LineFilter length(int min, int max) {
+			return (length, letters) -> length >= min && length <= max;
+		}
+
+		/**
+		 * @param min is the int fewest different letters.
+		 * @param max is the int most different letters.
+		 *
+		 * @return returns a LineFilter of quotes with min to max different letters.
+		 */
+		static LineFilter letters(int min, int max) {
+			return (length, letters) -> letters >= min && letters <= max;
+		}
+	}
+}
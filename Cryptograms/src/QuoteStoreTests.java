@@ -0,0 +1,93 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the class QuoteStore.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see QuoteStore
+ */
+public class QuoteStoreTests {
+
+    /**
+     * Tests QuoteStore Methods and the saved index.
+     */
+	@Test
+	void testQuoteStore() throws IOException {
+		Path dir = Files.createTempDirectory("QuoteStoreTests");
+		Path corpus = dir.resolve("quotes.txt");
+		Path index = dir.resolve("quotes.txt.idx");
+		try {
+			//blank lines are skipped, \r\n and a last line with no \n are kept
+			Files.write(corpus, "First quote\r\n\nSecond quote\n\r\nThird - Author".getBytes(StandardCharsets.UTF_8));
+			try (QuoteStore store = QuoteStore.open(corpus)) {
+				assertEquals(store.size(), 3);
+				assertEquals(store.quote(0), "First quote");
+				assertEquals(store.quote(1), "Second quote");
+				assertEquals(store.quote(2), "Third - Author");
+				assertThrows(IndexOutOfBoundsException.class, ()->{ store.quote(3);});
+				assertTrue(store.randomQuote(new Random(1)).length() > 0);
+			}
+			assertTrue(Files.exists(index));
+
+			//test the saved index is used when the corpus has not changed
+			try (QuoteStore store = QuoteStore.open(corpus)) {
+				assertEquals(store.size(), 3);
+				assertEquals(store.quote(2), "Third - Author");
+			}
+
+			//test a changed corpus is indexed again
+			Files.write(corpus, "Only quote\n".getBytes(StandardCharsets.UTF_8));
+			Files.setLastModifiedTime(corpus, FileTime.fromMillis(0));
+			try (QuoteStore store = QuoteStore.open(corpus)) {
+				assertEquals(store.size(), 1);
+				assertEquals(store.randomQuote(), "Only quote");
+			}
+		} finally {
+			Files.deleteIfExists(index);
+			Files.deleteIfExists(corpus);
+			Files.deleteIfExists(dir);
+		}
+	}
+
+    /**
+     * Tests sampling a quote in one pass over a corpus.
+     */
+	@Test
+	void testSample() throws IOException {
+		Path corpus = Files.createTempFile("QuoteStoreTests", ".txt");
+		try {
+			Files.write(corpus, "ABC\r\n\nAAAA\nHello World\nabcdefghij".getBytes(StandardCharsets.UTF_8));
+			Random random = new Random(7);
+
+			//test every quote is sampled about as often
+			int[] counts = new int[4];
+			String[] quotes = {"ABC", "AAAA", "Hello World", "abcdefghij"};
+			for (int i = 0; i < 4000; i++) {
+				String quote = QuoteStore.sample(corpus, random, QuoteStore.LineFilter.any());
+				counts[Arrays.asList(quotes).indexOf(quote)]++;
+			}
+			for (int count : counts) {
+				assertTrue(count > 800 && count < 1200);
+			}
+
+			//test filters of length and different letters
+			assertEquals(QuoteStore.sample(corpus, random, QuoteStore.LineFilter.letters(1, 1)), "AAAA");
+			assertEquals(QuoteStore.sample(corpus, random, QuoteStore.LineFilter.length(11, 11)), "Hello World");
+			assertEquals(QuoteStore.sample(corpus, random, QuoteStore.LineFilter.length(3, 4)
+					.and(QuoteStore.LineFilter.letters(3, 26))), "ABC");
+			assertNull(QuoteStore.sample(corpus, random, QuoteStore.LineFilter.length(100, 200)));
+		} finally {
+			Files.deleteIfExists(corpus);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/**
+ * The following class represents a ReplacementEvent, which is a change to the
+ * user's decryption of a CryptogramModel.
+ *
+ * The following class has every encrypted letter whose replacement changed, in
+ * alphabetical order, with the letter it was replaced with before and after the
+ * change and the positions of the letter in the quote. A letter that was not
+ * replaced before is CipherMap.NONE. The replacements of one call to the model are
+ * in one event, so a letter is in an event at most once. The event also says
+ * whether the game is solved after the change. A ReplacementEvent can't be changed.
+ *
+ * @author Fernando Ruiz
+ * @see CryptogramModel
+ * @see ModelListener
+ */
+public class ReplacementEvent {
+
+	private final CryptogramModel source;
+	private final char[] letters;
+	private final char[] oldValues;
+	private final char[] newValues;
+	private final int[] starts;
+	private final int[] positions;
+	private final boolean solved;
+
+	/**
+	 * Constructor for ReplacementEvent.
+	 *
+	 * The positions of letter i are from starts[i] to starts[i + 1] in positions.
+	 * The arrays are kept, not copied.
+	 *
+	 * @param source is the CryptogramModel that changed.
+	 * @param letters is a char array of the encrypted letters that changed.
+	 * @param oldValues is a char array of the replacements before the change.
+	 * @param newValues is a char array of the replacements after the change.
+	 * @param starts is an int array of where each letter's positions start.
+	 * @param positions is an int array of the positions of every letter.
+	 * @param solved is a boolean of whether the game is solved after the change.
+	 */
+	ReplacementEvent(CryptogramModel source, char[] letters, char[] oldValues,
+			char[] newValues, int[] starts, int[] positions, boolean solved) {
+		this.source = source;
+		this.letters = letters;
+		this.oldValues = oldValues;
+		this.newValues = newValues;
+		this.starts = starts;
+		this.positions = positions;
+		this.solved = solved;
+	}
+
+	/**
+	 * @return returns the CryptogramModel that changed.
+	 */
+	public CryptogramModel getSource() {
+		return source;
+	}
+
+	/**
+	 * @return returns the int number of encrypted letters that changed.
+	 */
+	public int size() {
+		return letters.length;
+	}
+
+	/**
+	 * @param i is an int index of a change, from 0 to size - 1.
+	 *
+	 * @return returns the capitalized encrypted letter of the change.
+	 */
+	public char getLetter(int i) {
+		return letters[i];
+	}
+
+	/**
+	 * @param i is an int index of a change, from 0 to size - 1.
+	 *
+	 * @return returns the replacement before the change, if N/A returns NONE
+	 */
+	public char getOldValue(int i) {
+		return oldValues[i];
+	}
+
+	/**
+	 * @param i is an int index of a change, from 0 to size - 1.
+	 *
+	 * @return returns the replacement after the change.
+	 */
+	public char getNewValue(int i) {
+		return newValues[i];
+	}
+
+	/**
+	 * @param i is an int index of a change, from 0 to size - 1.
+	 *
+	 * @return returns an int array of the positions of the letter in the quote.
+	 */
+	public int[] getPositions(int i) {
+		int[] letterPositions = new int[starts[i + 1] - starts[i]];
+		System.arraycopy(positions, starts[i], letterPositions, 0, letterPositions.length);
+		return letterPositions;
+	}
+
+	/**
+	 * @return returns an int array of the positions of every letter that changed.
+	 */
+	public int[] getPositions() {
+		return positions.clone();
+	}
+
+	/**
+	 * @return returns true if the game is solved after the change.
+	 */
+	public boolean isSolved() {
+		return solved;
+	}
+}
@@ -0,0 +1,63 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The following class tests the ReplacementEvents sent by CryptogramModel.
+ *
+ * @author Fernando Ruiz
+ *
+ * @see ReplacementEvent
+ * @see CryptogramModel
+ */
+public class ReplacementEventTests {
+
+    /**
+     * Tests the events of single and coalesced replacements.
+     */
+	@Test
+	void testReplacementEvent() {
+		CryptogramModel model = new CryptogramModel("Abba cab", 335);
+		List<ReplacementEvent> events = new ArrayList<>();
+		model.addListener(events::add);
+		String encrypted = model.getEncryptedString();
+		char a = encrypted.charAt(0);
+		char b = encrypted.charAt(1);
+		char c = encrypted.charAt(5);
+
+		//test one replacement has its letter, values and positions
+		model.setReplacement(a, 'x');
+		assertEquals(events.size(), 1);
+		ReplacementEvent event = events.get(0);
+		assertSame(event.getSource(), model);
+		assertEquals(event.size(), 1);
+		assertEquals(event.getLetter(0), a);
+		assertEquals(event.getOldValue(0), CipherMap.NONE);
+		assertEquals(event.getNewValue(0), 'X');
+		assertArrayEquals(event.getPositions(0), new int[] {0, 3, 6});
+		assertFalse(event.isSolved());
+
+		//test a replacement that changes nothing sends no event
+		model.setReplacement(a, 'X');
+		model.setReplacement('1', 'A');
+		assertEquals(events.size(), 1);
+
+		//test replacements in one call are one event, a letter in it once
+		model.setReplacements(new char[] {b, a, c, a}, new char[] {'B', 'Q', 'C', 'A'});
+		assertEquals(events.size(), 2);
+		event = events.get(1);
+		assertEquals(event.size(), 3);
+		for (int i = 0; i < event.size(); i++) {
+			if (event.getLetter(i) == a) {
+				assertEquals(event.getOldValue(i), 'X');
+				assertEquals(event.getNewValue(i), 'A');
+			}
+		}
+		assertEquals(event.getPositions().length, 7);
+		assertTrue(event.isSolved());
+		assertTrue(model.isSolved());
+		assertThrows(IllegalArgumentException.class, ()->{ model.setReplacements(new char[1], new char[2]);});
+	}
+}